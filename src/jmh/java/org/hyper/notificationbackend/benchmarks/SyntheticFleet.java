@@ -0,0 +1,125 @@
+package org.hyper.notificationbackend.benchmarks;
+
+import org.hyper.notificationbackend.models.ContentSchedule;
+import org.hyper.notificationbackend.models.TV;
+import org.hyper.notificationbackend.models.TimeSchedule;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic data set for the benchmarks: a number of TVs and content schedules
+ * with the mix seen in production (mostly immediate content, some timed and daily schedules),
+ * each schedule targeting one to three TVs.
+ */
+public class SyntheticFleet {
+
+    private final List<TV> tvs = new ArrayList<>();
+    private final List<ContentSchedule> schedules = new ArrayList<>();
+    private final List<TimeSchedule> timeSchedules = new ArrayList<>();
+
+    // Per TV, what the repository queries would return (as the DB indexes would)
+    private final Map<TV, List<ContentSchedule>> immediateByTV = new HashMap<>();
+    private final Map<TV, List<ContentSchedule>> dailyByTV = new HashMap<>();
+    private final Map<TV, List<TimeSchedule>> timeSchedulesByTV = new HashMap<>();
+
+    public SyntheticFleet(int tvCount, int scheduleCount, LocalDateTime now, long seed) {
+        Random random = new Random(seed);
+
+        for (int i = 0; i < tvCount; i++) {
+            TV tv = new TV("TV" + (i + 1), "Screen " + (i + 1));
+            tv.setId((long) (i + 1));
+            tvs.add(tv);
+            immediateByTV.put(tv, new ArrayList<>());
+            dailyByTV.put(tv, new ArrayList<>());
+            timeSchedulesByTV.put(tv, new ArrayList<>());
+        }
+
+        long timeScheduleId = 1;
+        for (int i = 0; i < scheduleCount; i++) {
+            ContentSchedule schedule = new ContentSchedule();
+            schedule.setId((long) (i + 1));
+            schedule.setTitle("Schedule " + (i + 1));
+            schedule.setContentType(random.nextInt(3) == 0 ? ContentSchedule.ContentType.IMAGE_QUAD : ContentSchedule.ContentType.IMAGE_SINGLE);
+            schedule.setImageUrls(imageUrls(random, 1 + random.nextInt(12)));
+            schedule.setActive(random.nextInt(10) != 0);
+
+            int targets = 1 + random.nextInt(Math.min(3, tvCount));
+            for (int t = 0; t < targets; t++) {
+                schedule.getTargetTVs().add(tvs.get(random.nextInt(tvCount)));
+            }
+
+            int kind = random.nextInt(20);
+            if (kind < 12) {
+                schedule.setImmediate(true);
+            } else if (kind < 17) {
+                // Timed: one or two windows somewhere in the last/next 48 hours
+                schedule.setImmediate(false);
+                int windows = 1 + random.nextInt(2);
+                for (int w = 0; w < windows; w++) {
+                    LocalDateTime start = now.plusMinutes(random.nextInt(48 * 60 * 2) - 48 * 60);
+                    TimeSchedule timeSchedule = new TimeSchedule(start, start.plusMinutes(15 + random.nextInt(240)));
+                    timeSchedule.setId(timeScheduleId++);
+                    schedule.addTimeSchedule(timeSchedule);
+                    timeSchedules.add(timeSchedule);
+                }
+            } else {
+                schedule.setImmediate(false);
+                schedule.setDailySchedule(true);
+                int startHour = random.nextInt(24);
+                schedule.setDailyStartTime(String.format("%02d:%02d", startHour, random.nextInt(4) * 15));
+                schedule.setDailyEndTime(String.format("%02d:%02d", (startHour + 1 + random.nextInt(8)) % 24, random.nextInt(4) * 15));
+            }
+            schedules.add(schedule);
+
+            for (TV tv : schedule.getTargetTVs()) {
+                if (schedule.isDailySchedule()) {
+                    if (schedule.isActive()) {
+                        dailyByTV.get(tv).add(schedule);
+                    }
+                } else if (schedule.isImmediate()) {
+                    if (schedule.isActive()) {
+                        immediateByTV.get(tv).add(schedule);
+                    }
+                } else {
+                    timeSchedulesByTV.get(tv).addAll(schedule.getTimeSchedules());
+                }
+            }
+        }
+    }
+
+    private static List<String> imageUrls(Random random, int count) {
+        List<String> urls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            urls.add(String.format("http://localhost:8090/uploads/%064x.jpg", random.nextLong() & Long.MAX_VALUE));
+        }
+        return urls;
+    }
+
+    public List<TV> getTvs() { return tvs; }
+
+    public List<ContentSchedule> getSchedules() { return schedules; }
+
+    public List<TimeSchedule> getTimeSchedules() { return timeSchedules; }
+
+    public List<ContentSchedule> immediateFor(TV tv) { return immediateByTV.get(tv); }
+
+    public List<ContentSchedule> dailyFor(TV tv) { return dailyByTV.get(tv); }
+
+    // Same filter as TimeScheduleRepository.findCurrentlyActiveForTV
+    public List<TimeSchedule> currentlyActiveFor(TV tv, LocalDateTime now) {
+        List<TimeSchedule> active = new ArrayList<>();
+        for (TimeSchedule timeSchedule : timeSchedulesByTV.get(tv)) {
+            if (timeSchedule.isActive() && timeSchedule.getContentSchedule().isActive()
+                    && !timeSchedule.getStartTime().isAfter(now) && !timeSchedule.getEndTime().isBefore(now)) {
+                active.add(timeSchedule);
+            }
+        }
+        active.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+        return active;
+    }
+}
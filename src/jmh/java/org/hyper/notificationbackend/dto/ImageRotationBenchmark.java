@@ -0,0 +1,65 @@
+package org.hyper.notificationbackend.dto;
+
+import org.hyper.notificationbackend.models.ContentSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The image rotation slicing behind GET /api/content/tv/{tvName}/current: building the
+ * response for an advancing imageIndex, the rotation info, and resolving the snapshot itself
+ * (which hashes the displayed content for the ETag).
+ */
+@State(Scope.Benchmark)
+public class ImageRotationBenchmark {
+
+    @Param({"1", "12", "100"})
+    public int images;
+
+    @Param({"IMAGE_SINGLE", "IMAGE_QUAD"})
+    public ContentSchedule.ContentType contentType;
+
+    private ContentSchedule schedule;
+    private ResolvedTVContent snapshot;
+    private int imageIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> urls = new ArrayList<>(images);
+        for (int i = 0; i < images; i++) {
+            urls.add(String.format("http://localhost:8090/uploads/%064x.jpg", i * 7919L));
+        }
+        schedule = new ContentSchedule();
+        schedule.setId(1L);
+        schedule.setTitle("Benchmark content");
+        schedule.setContentType(contentType);
+        schedule.setImageUrls(urls);
+
+        LocalDateTime now = LocalDateTime.now();
+        snapshot = ResolvedTVContent.of(1L, "TV1", schedule, now, now.plusMinutes(5));
+    }
+
+    @Benchmark
+    public Map<String, Object> currentContentResponse() {
+        return snapshot.toCurrentContentResponse(imageIndex++);
+    }
+
+    @Benchmark
+    public Map<String, Object> rotationInfo() {
+        return snapshot.toRotationInfo();
+    }
+
+    @Benchmark
+    public ResolvedTVContent resolveSnapshot() {
+        LocalDateTime now = LocalDateTime.now();
+        return ResolvedTVContent.of(1L, "TV1", schedule, now, now.plusMinutes(5));
+    }
+}
@@ -0,0 +1,67 @@
+package org.hyper.notificationbackend.models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * TVProfile.isDailyScheduleActive and ContentSchedule.isDailyScheduleActive over a batch of
+ * daily windows (same day and overnight), as evaluated for every daily schedule on each poll
+ * and reconciliation.
+ */
+@State(Scope.Benchmark)
+public class DailyScheduleBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int schedules;
+
+    private final List<ContentSchedule> contentSchedules = new ArrayList<>();
+    private final List<TVProfile> profiles = new ArrayList<>();
+    private LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < schedules; i++) {
+            int startHour = random.nextInt(24);
+            String start = String.format("%02d:%02d", startHour, random.nextInt(4) * 15);
+            String end = String.format("%02d:%02d", (startHour + 1 + random.nextInt(8)) % 24, random.nextInt(4) * 15);
+
+            ContentSchedule schedule = new ContentSchedule();
+            schedule.setDailySchedule(true);
+            schedule.setDailyStartTime(start);
+            schedule.setDailyEndTime(end);
+            contentSchedules.add(schedule);
+
+            TVProfile profile = new TVProfile("Profile " + i, null);
+            profile.setDailySchedule(true);
+            profile.setDailyStartTime(start);
+            profile.setDailyEndTime(end);
+            profiles.add(profile);
+        }
+        now = LocalDateTime.now();
+    }
+
+    @Benchmark
+    public void contentScheduleIsDailyScheduleActive(Blackhole blackhole) {
+        for (ContentSchedule schedule : contentSchedules) {
+            blackhole.consume(schedule.isDailyScheduleActive(now));
+        }
+    }
+
+    @Benchmark
+    public void tvProfileIsDailyScheduleActive(Blackhole blackhole) {
+        for (TVProfile profile : profiles) {
+            blackhole.consume(profile.isDailyScheduleActive(now));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.hyper.notificationbackend.services;
+
+import org.hyper.notificationbackend.benchmarks.SyntheticFleet;
+import org.hyper.notificationbackend.models.ContentSchedule;
+import org.hyper.notificationbackend.models.TV;
+import org.hyper.notificationbackend.repositories.ContentScheduleRepository;
+import org.hyper.notificationbackend.repositories.TimeScheduleRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ContentScheduleService.getSchedulesForTV, the per-poll content resolution, for every TV of
+ * the fleet in turn. Repositories are in-memory and answer from per-TV lists (like the DB
+ * indexes would), so this measures the service logic, not the database.
+ */
+@State(Scope.Benchmark)
+public class ContentResolutionBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int schedules;
+
+    @Param({"10", "100", "1000"})
+    public int tvs;
+
+    private SyntheticFleet fleet;
+    private ContentScheduleService service;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fleet = new SyntheticFleet(tvs, schedules, LocalDateTime.now(), 42);
+
+        ContentScheduleRepository contentRepository = repository(ContentScheduleRepository.class, (method, args) -> switch (method) {
+            case "findImmediateForTV" -> fleet.immediateFor((TV) args[0]);
+            case "findDailyScheduleForTV" -> fleet.dailyFor((TV) args[0]);
+            // Only initialize lazy collections, which are already loaded here
+            case "fetchImageUrls", "fetchVideoUrls", "fetchTargetTVs", "fetchTimeSchedules" -> List.of();
+            default -> throw new UnsupportedOperationException(method);
+        });
+        TimeScheduleRepository timeRepository = repository(TimeScheduleRepository.class, (method, args) -> switch (method) {
+            case "findCurrentlyActiveForTV" -> fleet.currentlyActiveFor((TV) args[0], (LocalDateTime) args[1]);
+            default -> throw new UnsupportedOperationException(method);
+        });
+
+        service = new ContentScheduleService();
+        inject(service, "contentScheduleRepository", contentRepository);
+        inject(service, "timeScheduleRepository", timeRepository);
+    }
+
+    @Benchmark
+    public List<ContentSchedule> getSchedulesForTV() {
+        List<TV> all = fleet.getTvs();
+        TV tv = all.get(next++ % all.size());
+        return service.getSchedulesForTV(tv);
+    }
+
+    private interface Query {
+        Object answer(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Query query) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(query, args);
+            }
+            return query.answer(method.getName(), args);
+        });
+    }
+
+    private static void inject(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
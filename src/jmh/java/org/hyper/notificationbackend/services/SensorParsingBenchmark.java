@@ -0,0 +1,51 @@
+package org.hyper.notificationbackend.services;
+
+import org.hyper.notificationbackend.sensors.SensorHtmlParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * SensorHtmlParser (behind DeviceService.parseSensorData) on captured Niagara pages: the servlet
+ * view iframe the values normally come from, and the main page used as fallback.
+ */
+@State(Scope.Benchmark)
+public class SensorParsingBenchmark {
+
+    private SensorHtmlParser parser;
+    private String servletViewHtml;
+    private String mainPageHtml;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        parser = new SensorHtmlParser(SensorHtmlParser.DEFAULT_POINTS, true);
+        servletViewHtml = load("/niagara/servlet-view.html");
+        mainPageHtml = load("/niagara/affichage.html");
+    }
+
+    @Benchmark
+    public Map<String, String> parseServletView() {
+        return parser.parse(servletViewHtml);
+    }
+
+    @Benchmark
+    public Map<String, String> parseMainPage() {
+        return parser.parse(mainPageHtml);
+    }
+
+    private static String load(String resource) throws IOException {
+        try (InputStream in = SensorParsingBenchmark.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing benchmark fixture " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package org.hyper.notificationbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hyper.notificationbackend.NotificationbackendApplication;
+import org.hyper.notificationbackend.models.TVEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fleet load test: starts the application on a random port with the "loadtest" profile
+ * (in-memory H2), seeds it, then simulates TVs polling their content, profile and the sensor
+ * data while admins create and update schedules. After the warmup, every request is timed and
+ * the report gives throughput, p50/p99 latency per endpoint and the Hibernate statement counts
+ * for the measured period.
+ *
+ * Options (all optional): --tvs=50 --admins=1 --schedules=500 --profiles=20 --duration=60
+ * --warmup=15 --poll-ms=5000 --admin-ms=5000 --seed=42
+ */
+public class FleetLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FleetLoadTest.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // A TV fetches its profile every few content polls and the sensor data less often
+    private static final int PROFILE_EVERY = 6;
+    private static final int DEVICE_DATA_EVERY = 12;
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final List<LatencyRecorder> recorders = new ArrayList<>();
+    private String baseUrl;
+    private List<String> tvNames;
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    private FleetLoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new FleetLoadTest(options).run();
+    }
+
+    private int option(String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    private void run() throws Exception {
+        int tvCount = option("tvs", 50);
+        int adminCount = option("admins", 1);
+        int durationSeconds = option("duration", 60);
+        int warmupSeconds = option("warmup", 15);
+        long seed = option("seed", 42);
+
+        SpringApplication application = new SpringApplication(NotificationbackendApplication.class);
+        application.setAdditionalProfiles("loadtest");
+        ConfigurableApplicationContext context = application.run("--server.port=0");
+        try {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            tvNames = new FleetSeeder(context, seed).seed(tvCount, option("schedules", 500), option("profiles", 20));
+            Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            log.info("Seeded {} TVs, starting {} TVs and {} admins against {}", tvNames.size(), tvCount, adminCount, baseUrl);
+
+            ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(tvCount + adminCount);
+            Random random = new Random(seed);
+            int pollMs = option("poll-ms", 5000);
+            for (String tvName : tvNames) {
+                SimulatedTV tv = new SimulatedTV(tvName, executor, pollMs, random.nextLong());
+                executor.schedule(tv, random.nextInt(pollMs), TimeUnit.MILLISECONDS);
+            }
+            for (int i = 0; i < adminCount; i++) {
+                SimulatedAdmin admin = new SimulatedAdmin(executor, option("admin-ms", 5000), random.nextLong());
+                executor.schedule(admin, random.nextInt(1000), TimeUnit.MILLISECONDS);
+            }
+
+            Thread.sleep(warmupSeconds * 1000L);
+            statistics.clear();
+            measuring = true;
+            long start = System.nanoTime();
+            Thread.sleep(durationSeconds * 1000L);
+            measuring = false;
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+            running = false;
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+
+            report(tvCount, adminCount, elapsedSeconds, statistics);
+        } finally {
+            context.close();
+        }
+    }
+
+    private void report(int tvCount, int adminCount, double elapsedSeconds, Statistics statistics) {
+        LatencyRecorder total = new LatencyRecorder();
+        synchronized (recorders) {
+            for (LatencyRecorder recorder : recorders) {
+                total.merge(recorder);
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%nFleet load test: %d TVs, %d admins, %.1f s measured%n", tvCount, adminCount, elapsedSeconds));
+        out.append(String.format("%-28s %9s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+        long requests = 0;
+        for (Map.Entry<String, LatencyRecorder.Samples> entry : total.getByEndpoint().entrySet()) {
+            LatencyRecorder.Samples samples = entry.getValue();
+            requests += samples.getCount();
+            out.append(String.format("%-28s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", entry.getKey(), samples.getCount(), samples.getErrors(),
+                    samples.getCount() / elapsedSeconds, samples.percentileMillis(50), samples.percentileMillis(99), samples.percentileMillis(100)));
+        }
+        out.append(String.format("%-28s %9d %7s %9.1f%n", "total", requests, "", requests / elapsedSeconds));
+
+        long statements = statistics.getPrepareStatementCount();
+        out.append(String.format("%nDatabase: %d statements (%.2f per request), %d queries, %d entity loads, %d collection fetches%n",
+                statements, requests == 0 ? 0.0 : (double) statements / requests, statistics.getQueryExecutionCount(),
+                statistics.getEntityLoadCount(), statistics.getCollectionFetchCount()));
+        log.info(out.toString());
+    }
+
+    private LatencyRecorder newRecorder() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        synchronized (recorders) {
+            recorders.add(recorder);
+        }
+        return recorder;
+    }
+
+    // Sends the request and records it (after the warmup) under the given endpoint name
+    private HttpResponse<String> send(LatencyRecorder recorder, String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<String> response = null;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.debug("{} failed: {}", endpoint, e.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        if (measuring) {
+            recorder.record(endpoint, elapsed, response == null || response.statusCode() >= 400);
+        }
+        return response;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    /**
+     * One TV: polls /current with an advancing imageIndex and its cached ETags like the
+     * frontend does, and every few polls its profile and the sensor data.
+     */
+    private class SimulatedTV implements Runnable {
+        private final String name;
+        private final ScheduledExecutorService executor;
+        private final int pollMs;
+        private final Random random;
+        private final LatencyRecorder recorder = newRecorder();
+        // Profiles are only resolved for the TVEnum names (TVProfileController)
+        private final boolean hasProfile;
+        private final Map<Integer, String> etags = new HashMap<>();
+        private int imageIndex;
+        private int totalRotations = 1;
+        private long cycle;
+
+        SimulatedTV(String name, ScheduledExecutorService executor, int pollMs, long seed) {
+            this.name = name;
+            this.executor = executor;
+            this.pollMs = pollMs;
+            this.random = new Random(seed);
+            Set<String> enumNames = new HashSet<>();
+            for (TVEnum tv : TVEnum.values()) {
+                enumNames.add(tv.name());
+            }
+            this.hasProfile = enumNames.contains(name);
+        }
+
+        @Override
+        public void run() {
+            if (!running) {
+                return;
+            }
+            try {
+                pollCurrent();
+                if (hasProfile && cycle % PROFILE_EVERY == 0) {
+                    send(recorder, "GET /api/profiles/tv/{tv}", request("/api/profiles/tv/" + name).GET().build());
+                }
+                if (cycle % DEVICE_DATA_EVERY == 0) {
+                    send(recorder, "GET /api/device-data", request("/api/device-data").GET().build());
+                }
+                cycle++;
+            } catch (Exception e) {
+                log.debug("TV {} poll failed: {}", name, e.getMessage());
+            }
+            if (running) {
+                // +-20% jitter so the fleet doesn't poll in lockstep
+                long delay = pollMs * 8L / 10 + random.nextInt(Math.max(1, pollMs * 4 / 10));
+                executor.schedule(this, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void pollCurrent() throws Exception {
+            HttpRequest.Builder builder = request("/api/content/tv/" + name + "/current?imageIndex=" + imageIndex).GET();
+            String etag = etags.get(imageIndex);
+            if (etag != null) {
+                builder.header("If-None-Match", etag);
+            }
+            HttpResponse<String> response = send(recorder, "GET /api/content/tv/{tv}/current", builder.build());
+            if (response != null && response.statusCode() == 200) {
+                response.headers().firstValue("ETag").ifPresent(value -> etags.put(imageIndex, value));
+                JsonNode body = MAPPER.readTree(response.body());
+                totalRotations = Math.max(1, body.path("totalRotations").asInt(1));
+            }
+            imageIndex = (imageIndex + 1) % totalRotations;
+        }
+    }
+
+    /**
+     * One admin: alternates between creating content for a few TVs (immediate or timed) and
+     * updating content it created earlier.
+     */
+    private class SimulatedAdmin implements Runnable {
+        private final ScheduledExecutorService executor;
+        private final int intervalMs;
+        private final Random random;
+        private final LatencyRecorder recorder = newRecorder();
+        private final String authorization = "Basic " + Base64.getEncoder().encodeToString(
+                (FleetSeeder.ADMIN_USERNAME + ":" + FleetSeeder.ADMIN_PASSWORD).getBytes(StandardCharsets.UTF_8));
+        private final List<Long> created = new ArrayList<>();
+        private int counter;
+
+        SimulatedAdmin(ScheduledExecutorService executor, int intervalMs, long seed) {
+            this.executor = executor;
+            this.intervalMs = intervalMs;
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public void run() {
+            if (!running) {
+                return;
+            }
+            try {
+                if (!created.isEmpty() && random.nextInt(3) == 0) {
+                    Long id = created.get(random.nextInt(created.size()));
+                    HttpRequest request = request("/api/content/" + id + "/from-request")
+                            .header("Content-Type", "application/json")
+                            .header("Authorization", authorization)
+                            .PUT(HttpRequest.BodyPublishers.ofString(contentRequest()))
+                            .build();
+                    send(recorder, "PUT /api/content/{id}/from-request", request);
+                } else {
+                    HttpRequest request = request("/api/content/from-request")
+                            .header("Content-Type", "application/json")
+                            .header("Authorization", authorization)
+                            .POST(HttpRequest.BodyPublishers.ofString(contentRequest()))
+                            .build();
+                    HttpResponse<String> response = send(recorder, "POST /api/content/from-request", request);
+                    if (response != null && response.statusCode() == 200) {
+                        JsonNode id = MAPPER.readTree(response.body()).path("id");
+                        if (id.isNumber()) {
+                            created.add(id.asLong());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                log.debug("Admin request failed: {}", e.getMessage());
+            }
+            if (running) {
+                executor.schedule(this, intervalMs / 2 + random.nextInt(Math.max(1, intervalMs)), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private String contentRequest() throws Exception {
+            counter++;
+            Map<String, Object> request = new LinkedHashMap<>();
+            request.put("title", "Load test admin content " + counter);
+            request.put("contentType", random.nextBoolean() ? "IMAGE_SINGLE" : "IMAGE_QUAD");
+            List<String> imageUrls = new ArrayList<>();
+            for (int i = 0, n = 1 + random.nextInt(8); i < n; i++) {
+                imageUrls.add(String.format("http://localhost:8090/uploads/%064x.jpg", random.nextLong() & Long.MAX_VALUE));
+            }
+            request.put("imageUrls", imageUrls);
+            Set<String> targets = new HashSet<>();
+            for (int i = 0, n = 1 + random.nextInt(3); i < n; i++) {
+                targets.add(tvNames.get(random.nextInt(tvNames.size())));
+            }
+            request.put("targetTVs", targets);
+            if (random.nextBoolean()) {
+                request.put("immediate", true);
+            } else {
+                LocalDateTime start = LocalDateTime.now().plusMinutes(random.nextInt(30));
+                request.put("immediate", false);
+                request.put("timeSchedules", List.of(Map.of(
+                        "startTime", start.withNano(0).toString(),
+                        "endTime", start.plusMinutes(5 + random.nextInt(60)).withNano(0).toString())));
+            }
+            return MAPPER.writeValueAsString(request);
+        }
+    }
+}
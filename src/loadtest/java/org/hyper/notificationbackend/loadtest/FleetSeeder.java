@@ -0,0 +1,178 @@
+package org.hyper.notificationbackend.loadtest;
+
+import org.hyper.notificationbackend.models.ContentSchedule;
+import org.hyper.notificationbackend.models.ProfileSlide;
+import org.hyper.notificationbackend.models.ProfileTimeSchedule;
+import org.hyper.notificationbackend.models.TV;
+import org.hyper.notificationbackend.models.TVProfile;
+import org.hyper.notificationbackend.models.TVProfileAssignment;
+import org.hyper.notificationbackend.models.TimeSchedule;
+import org.hyper.notificationbackend.models.User;
+import org.hyper.notificationbackend.repositories.ContentScheduleRepository;
+import org.hyper.notificationbackend.repositories.TVProfileAssignmentRepository;
+import org.hyper.notificationbackend.repositories.TVProfileRepository;
+import org.hyper.notificationbackend.repositories.TVRepository;
+import org.hyper.notificationbackend.repositories.UserRepository;
+import org.hyper.notificationbackend.services.SensorDataCacheService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeds the load-test database through the application's repositories: TVs, content schedules
+ * with the production mix (mostly immediate, some timed and daily), profiles with slides and
+ * time windows assigned to the TVs, an admin account, and a cached sensor reading so
+ * /api/device-data is answered like it is between two Niagara polls.
+ */
+public class FleetSeeder {
+
+    public static final String ADMIN_USERNAME = "loadtest-admin";
+    public static final String ADMIN_PASSWORD = "loadtest-password";
+
+    private final ApplicationContext context;
+    private final Random random;
+
+    public FleetSeeder(ApplicationContext context, long seed) {
+        this.context = context;
+        this.random = new Random(seed);
+    }
+
+    // Returns the names of the seeded TVs
+    public List<String> seed(int tvCount, int scheduleCount, int profileCount) {
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        List<String> names = transaction.execute(status -> {
+            List<TV> tvs = seedTVs(tvCount);
+            seedSchedules(tvs, scheduleCount);
+            seedProfiles(tvs, profileCount);
+            seedAdmin();
+            List<String> result = new ArrayList<>();
+            for (TV tv : tvs) {
+                result.add(tv.getName());
+            }
+            return result;
+        });
+        seedSensorData();
+        return names;
+    }
+
+    private List<TV> seedTVs(int count) {
+        TVRepository tvRepository = context.getBean(TVRepository.class);
+        List<TV> tvs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // TV1..TV4 match TVEnum, which the profile endpoint still requires
+            TV tv = new TV("TV" + (i + 1), "TV " + (i + 1), "Load test screen " + (i + 1), "Floor " + (i % 5));
+            tvs.add(tvRepository.save(tv));
+        }
+        return tvs;
+    }
+
+    private void seedSchedules(List<TV> tvs, int count) {
+        ContentScheduleRepository repository = context.getBean(ContentScheduleRepository.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            ContentSchedule schedule = new ContentSchedule();
+            schedule.setTitle("Load test content " + (i + 1));
+            schedule.setContentType(random.nextInt(3) == 0 ? ContentSchedule.ContentType.IMAGE_QUAD : ContentSchedule.ContentType.IMAGE_SINGLE);
+            schedule.setImageUrls(imageUrls(1 + random.nextInt(12)));
+            schedule.setActive(random.nextInt(10) != 0);
+
+            int targets = 1 + random.nextInt(Math.min(3, tvs.size()));
+            for (int t = 0; t < targets; t++) {
+                schedule.getTargetTVs().add(tvs.get(random.nextInt(tvs.size())));
+            }
+
+            int kind = random.nextInt(20);
+            if (kind < 12) {
+                schedule.setImmediate(true);
+            } else if (kind < 17) {
+                // Timed: one or two windows somewhere in the last/next 48 hours
+                schedule.setImmediate(false);
+                int windows = 1 + random.nextInt(2);
+                for (int w = 0; w < windows; w++) {
+                    LocalDateTime start = now.plusMinutes(random.nextInt(48 * 60 * 2) - 48 * 60);
+                    schedule.addTimeSchedule(new TimeSchedule(start, start.plusMinutes(15 + random.nextInt(240))));
+                }
+            } else {
+                schedule.setImmediate(false);
+                schedule.setDailySchedule(true);
+                int startHour = random.nextInt(24);
+                schedule.setDailyStartTime(String.format("%02d:%02d", startHour, random.nextInt(4) * 15));
+                schedule.setDailyEndTime(String.format("%02d:%02d", (startHour + 1 + random.nextInt(8)) % 24, random.nextInt(4) * 15));
+            }
+            repository.save(schedule);
+        }
+    }
+
+    private void seedProfiles(List<TV> tvs, int count) {
+        if (count == 0) {
+            return;
+        }
+        TVProfileRepository profileRepository = context.getBean(TVProfileRepository.class);
+        TVProfileAssignmentRepository assignmentRepository = context.getBean(TVProfileAssignmentRepository.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<TVProfile> profiles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TVProfile profile = new TVProfile("Load test profile " + (i + 1), "Seeded by the load test");
+            int slides = 1 + random.nextInt(6);
+            for (int s = 0; s < slides; s++) {
+                ProfileSlide slide = new ProfileSlide(profile, s, "Slide " + (s + 1), ContentSchedule.ContentType.IMAGE_SINGLE);
+                slide.setImageUrls(imageUrls(1));
+                slide.setDurationSeconds(10 + random.nextInt(20));
+                profile.addSlide(slide);
+            }
+            int kind = random.nextInt(4);
+            if (kind == 0) {
+                profile.setImmediate(false);
+                profile.addTimeSchedule(new ProfileTimeSchedule(now.minusHours(1), now.plusHours(2 + random.nextInt(24)), profile));
+            } else if (kind == 1) {
+                profile.setImmediate(false);
+                profile.setDailySchedule(true);
+                profile.setDailyStartTime("06:00");
+                profile.setDailyEndTime("22:00");
+            } else {
+                profile.setImmediate(true);
+            }
+            profiles.add(profileRepository.save(profile));
+        }
+
+        for (TV tv : tvs) {
+            assignmentRepository.save(new TVProfileAssignment(tv, profiles.get(random.nextInt(profiles.size()))));
+        }
+    }
+
+    private void seedAdmin() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        User admin = new User(ADMIN_USERNAME, context.getBean(PasswordEncoder.class).encode(ADMIN_PASSWORD));
+        admin.setRole(User.Role.ADMIN);
+        userRepository.save(admin);
+    }
+
+    private void seedSensorData() {
+        Map<String, Object> sensorData = new HashMap<>();
+        sensorData.put("success", true);
+        sensorData.put("temperature", "21.5");
+        sensorData.put("temperature_unit", "°C");
+        sensorData.put("pressure", "1013");
+        sensorData.put("pressure_unit", "hPa");
+        sensorData.put("humidity", "45");
+        sensorData.put("humidity_unit", "%");
+        context.getBean(SensorDataCacheService.class).updateSensorData(sensorData);
+    }
+
+    private List<String> imageUrls(int count) {
+        List<String> urls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            urls.add(String.format("http://localhost:8090/uploads/%064x.jpg", random.nextLong() & Long.MAX_VALUE));
+        }
+        return urls;
+    }
+}
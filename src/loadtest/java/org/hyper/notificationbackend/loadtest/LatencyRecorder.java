@@ -0,0 +1,77 @@
+package org.hyper.notificationbackend.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Request latencies per endpoint for one simulated client. Not thread-safe: every client
+ * records into its own instance and the instances are merged for the report.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> byEndpoint = new TreeMap<>();
+
+    public void record(String endpoint, long nanos, boolean error) {
+        byEndpoint.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, error);
+    }
+
+    public void merge(LatencyRecorder other) {
+        for (Map.Entry<String, Samples> entry : other.byEndpoint.entrySet()) {
+            byEndpoint.computeIfAbsent(entry.getKey(), key -> new Samples()).addAll(entry.getValue());
+        }
+    }
+
+    public Map<String, Samples> getByEndpoint() {
+        return byEndpoint;
+    }
+
+    public static class Samples {
+        private long[] nanos = new long[256];
+        private int count;
+        private int errors;
+        private boolean sorted;
+
+        void add(long value, boolean error) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            if (error) {
+                errors++;
+            }
+            sorted = false;
+        }
+
+        void addAll(Samples other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            errors += other.errors;
+            sorted = false;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getErrors() {
+            return errors;
+        }
+
+        // Nearest-rank percentile in milliseconds
+        public double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            if (!sorted) {
+                Arrays.sort(nanos, 0, count);
+                sorted = true;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * count);
+            return nanos[Math.max(0, Math.min(count - 1, rank - 1))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.hyper.notificationbackend.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls to the same expensive operation: while one call is in flight,
+ * every other caller joins it and receives the same result (or exception) instead of starting
+ * its own. The next call after it finished starts a new one.
+ *
+ * Callers joining a call share its result object, so results should be immutable or copied.
+ */
+public final class SingleFlight<T> {
+
+    private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+
+    // Run the call on this thread, or wait for the one already in flight
+    public T execute(Supplier<T> call) {
+        return execute(call, () -> {});
+    }
+
+    // Same, running onJoin first when this caller joins a call in flight (e.g. to count coalesced calls)
+    public T execute(Supplier<T> call, Runnable onJoin) {
+        CompletableFuture<T> started = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.compareAndExchange(null, started);
+        if (existing != null) {
+            onJoin.run();
+            return join(existing);
+        }
+        run(started, call);
+        return join(started);
+    }
+
+    // Start the call on the executor, or join the one already in flight.
+    // The returned future completes with the result of whichever call ran.
+    public CompletableFuture<T> submit(Supplier<T> call, Executor executor) {
+        CompletableFuture<T> started = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.compareAndExchange(null, started);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> run(started, call));
+        } catch (RuntimeException e) {
+            // Rejected: nothing runs, so release the slot for the next caller
+            inFlight.compareAndSet(started, null);
+            started.completeExceptionally(e);
+        }
+        return started;
+    }
+
+    // True while a call is running (a snapshot, it may finish right after)
+    public boolean isInFlight() {
+        return inFlight.get() != null;
+    }
+
+    private void run(CompletableFuture<T> started, Supplier<T> call) {
+        try {
+            started.complete(call.get());
+        } catch (Throwable e) {
+            started.completeExceptionally(e);
+        } finally {
+            // After completing: a caller arriving in between gets this (fresh) result rather than a second call
+            inFlight.compareAndSet(started, null);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
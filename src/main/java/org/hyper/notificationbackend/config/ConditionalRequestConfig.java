@@ -0,0 +1,30 @@
+package org.hyper.notificationbackend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class ConditionalRequestConfig {
+
+    // ETag / If-None-Match support for the public TV endpoints that don't set their own ETag.
+    // /current and /rotation-info use the precomputed snapshot version instead, and /stream is
+    // a long-lived event stream that must not be buffered.
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> tvEtagFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                String uri = request.getRequestURI();
+                return uri.endsWith("/current") || uri.endsWith("/rotation-info") || uri.endsWith("/stream");
+            }
+        };
+
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/content/tv/*", "/api/profiles/tv/*");
+        registration.setName("tvEtagFilter");
+        return registration;
+    }
+}
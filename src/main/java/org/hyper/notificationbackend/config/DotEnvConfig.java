@@ -1,5 +1,7 @@
 package org.hyper.notificationbackend.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Configuration;
 
 import jakarta.annotation.PostConstruct;
@@ -11,6 +13,8 @@ import java.util.Properties;
 @Configuration
 public class DotEnvConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(DotEnvConfig.class);
+
     @PostConstruct
     public void loadDotEnv() {
         try {
@@ -27,15 +31,16 @@ public class DotEnvConfig {
                         setEnv(key, props.getProperty(key));
                     } catch (Exception e) {
                         // Fallback: just log that we set it as system property
-                        System.out.println("Loaded from .env: " + key + " = " + props.getProperty(key));
+                        // (values are secrets, only the key is logged)
+                        log.debug("Loaded from .env: {}", key);
                     }
                 }
-                System.out.println("Successfully loaded .env file with " + props.size() + " properties");
+                log.info("Successfully loaded .env file with {} properties", props.size());
             } else {
-                System.err.println("Warning: .env file not found in current directory");
+                log.warn(".env file not found in current directory");
             }
         } catch (IOException e) {
-            System.err.println("Error loading .env file: " + e.getMessage());
+            log.error("Error loading .env file: {}", e.getMessage());
         }
     }
     
@@ -0,0 +1,60 @@
+package org.hyper.notificationbackend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.hyper.notificationbackend.services.ScheduleTransitionEngine;
+import org.hyper.notificationbackend.services.SensorDataCacheService;
+import org.hyper.notificationbackend.services.TVStreamService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Latency histograms (Prometheus buckets) for the endpoints polled by the TVs.
+    // Other endpoints keep the default count/sum/max to limit the number of series.
+    @Bean
+    public MeterFilter tvEndpointHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                String uri = id.getTag("uri");
+                if ("http.server.requests".equals(id.getName()) && uri != null
+                        && (uri.startsWith("/api/content/tv/") || uri.startsWith("/api/profiles/tv/"))) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                            .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    // Gauges read from the services' in-memory state at scrape time
+    @Bean
+    public MeterBinder applicationStateMetrics(SensorDataCacheService sensorDataCacheService,
+                                               TVStreamService tvStreamService,
+                                               ScheduleTransitionEngine scheduleTransitionEngine) {
+        return registry -> {
+            Gauge.builder("sensor.cache.age", sensorDataCacheService,
+                            cache -> cache.hasCachedData() ? cache.getDataAgeInSeconds() : Double.NaN)
+                    .description("Age of the cached Niagara sensor data")
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("tv.stream.connections", tvStreamService, TVStreamService::getConnectionCount)
+                    .description("Open TV push streams")
+                    .register(registry);
+            Gauge.builder("schedule.transitions.pending", scheduleTransitionEngine, ScheduleTransitionEngine::getPendingCount)
+                    .description("Schedule transitions waiting to fire")
+                    .register(registry);
+        };
+    }
+}
@@ -52,6 +52,7 @@ public class WebSecurityConfig {
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         // Device testing - place early to avoid conflicts
                         .requestMatchers("/api/device-data").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/device-data/latest", "/api/device-data/history").permitAll()
                         // Auth endpoints
                         .requestMatchers("/api/auth/**").permitAll()
                         // Static file access - allow public access to uploaded files
@@ -63,6 +64,7 @@ public class WebSecurityConfig {
                         // File upload endpoints - permit all to avoid CORS issues
                         .requestMatchers(HttpMethod.POST, "/api/content/upload-file").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/content/upload-files").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/content/upload-stream").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/content/from-request").permitAll()
                         .requestMatchers(HttpMethod.DELETE, "/api/content/delete-file/**").hasRole("ADMIN")
                         // Content management endpoints - require admin role
@@ -97,6 +99,9 @@ public class WebSecurityConfig {
                         .requestMatchers("/api/tv/**").permitAll()
                         // Other admin endpoints
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        // Monitoring - health and the Prometheus scrape are public, other actuator endpoints admin only
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 .httpBasic(httpBasic -> {});
 
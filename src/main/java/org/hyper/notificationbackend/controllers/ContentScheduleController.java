@@ -4,13 +4,22 @@ import org.hyper.notificationbackend.models.ContentSchedule;
 import org.hyper.notificationbackend.models.TV;
 import org.hyper.notificationbackend.models.TVEnum;
 import org.hyper.notificationbackend.services.ContentScheduleService;
+import org.hyper.notificationbackend.services.TVContentSnapshotService;
 import org.hyper.notificationbackend.services.TVService;
+import org.hyper.notificationbackend.services.TVStreamService;
 import org.hyper.notificationbackend.dto.ContentScheduleRequest;
 import org.hyper.notificationbackend.dto.ContentScheduleResponse;
+import org.hyper.notificationbackend.dto.ResolvedTVContent;
+import org.hyper.notificationbackend.logging.SampledLogger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -22,12 +31,23 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/content")
 public class ContentScheduleController {
 
+    // Every screen polls every few seconds: log each TV at most once a minute.
+    // Enable at runtime with POST /actuator/loggers/org.hyper.notificationbackend.tv.polls {"configuredLevel": "DEBUG"}
+    private static final SampledLogger pollLog = new SampledLogger(
+            LoggerFactory.getLogger("org.hyper.notificationbackend.tv.polls"), Duration.ofMinutes(1));
+
     @Autowired
     private ContentScheduleService contentScheduleService;
     
     @Autowired
     private TVService tvService;
     
+    @Autowired
+    private TVContentSnapshotService snapshotService;
+    
+    @Autowired
+    private TVStreamService streamService;
+    
     // Create a new content schedule
     @PostMapping
     public ResponseEntity<?> createContentSchedule(@RequestBody ContentSchedule contentSchedule) {
@@ -208,79 +228,25 @@ public class ContentScheduleController {
     }
     
     // Get current content for a specific TV with image rotation support
+    // Served from the in-memory snapshot, the database is only hit when the snapshot is rebuilt.
+    // Unchanged content is answered with 304 Not Modified when the TV sends If-None-Match
+    // (Spring compares the ETag of the returned ResponseEntity with the request).
     @GetMapping("/tv/{tvName}/current")
     public ResponseEntity<?> getCurrentContentForTV(@PathVariable("tvName") String tvName,
                                                     @RequestParam(value = "imageIndex", defaultValue = "0") int imageIndex) {
         try {
-            List<ContentSchedule> currentContent = null;
-            
-            // First try to find as a TV entity
-            Optional<TV> tvEntity = tvService.getTVByName(tvName);
-            if (tvEntity.isPresent()) {
-                currentContent = contentScheduleService.getSchedulesForTV(tvEntity.get());
-            } else {
-                // Fallback to TVEnum for backward compatibility
-                try {
-                    TVEnum tvEnum = TVEnum.valueOf(tvName);
-                    currentContent = contentScheduleService.getSchedulesForTV(tvEnum);
-                } catch (IllegalArgumentException enumException) {
-                    return ResponseEntity.badRequest().body("Invalid TV name: " + tvName + ". TV not found in database or enum.");
-                }
-            }
-            
-            if (currentContent == null || currentContent.isEmpty()) {
-                return ResponseEntity.ok(Map.of("message", "No active content for this TV"));
-            }
-            
-            ContentSchedule schedule = currentContent.get(0); // Get the highest priority content
-            Map<String, Object> response = new HashMap<>();
-            response.put("id", schedule.getId());
-            response.put("title", schedule.getTitle());
-            response.put("contentType", schedule.getContentType());
-            response.put("content", schedule.getContent());
-            response.put("isTimedContent", schedule.getStartTime() != null && schedule.getEndTime() != null);
-            response.put("startTime", schedule.getStartTime());
-            response.put("endTime", schedule.getEndTime());
-            
-            // Handle image rotation for image content types
-            if (schedule.getContentType().toString().startsWith("IMAGE_") && 
-                schedule.getImageUrls() != null && !schedule.getImageUrls().isEmpty()) {
-                
-                List<String> imageUrls = schedule.getImageUrls();
-                int totalImages = imageUrls.size();
-                
-                // For different content types, determine how many images to show at once
-                int imagesPerDisplay = switch (schedule.getContentType()) {
-                    case IMAGE_SINGLE -> 1;
-                    case IMAGE_DUAL -> 2;
-                    case IMAGE_QUAD -> 4;
-                    default -> 1;
-                };
-                
-                // Calculate which images to show based on the current rotation index
-                int startIndex = (imageIndex * imagesPerDisplay) % totalImages;
-                List<String> currentImages = new java.util.ArrayList<>();
-                
-                for (int i = 0; i < imagesPerDisplay; i++) {
-                    int currentImageIndex = (startIndex + i) % totalImages;
-                    currentImages.add(imageUrls.get(currentImageIndex));
-                }
-                
-                response.put("imageUrls", currentImages);
-                response.put("totalImages", totalImages);
-                response.put("currentRotationIndex", imageIndex);
-                response.put("imagesPerDisplay", imagesPerDisplay);
-                response.put("totalRotations", (int) Math.ceil((double) totalImages / imagesPerDisplay));
-            } else {
-                response.put("imageUrls", schedule.getImageUrls());
-            }
-            
-            // Add video URLs if present
-            if (schedule.getVideoUrls() != null && !schedule.getVideoUrls().isEmpty()) {
-                response.put("videoUrls", schedule.getVideoUrls());
+            Optional<ResolvedTVContent> snapshot = snapshotService.getSnapshot(tvName);
+            if (snapshot.isEmpty()) {
+                return unknownTVResponse(tvName, Map.of("message", "No active content for this TV"));
             }
             
-            return ResponseEntity.ok(response);
+            String etag = snapshot.get().getCurrentContentETag(imageIndex);
+            pollLog.debug(tvName + "/current", "TV {} polled current content (imageIndex {}, version {})",
+                    tvName, imageIndex, snapshot.get().getVersion());
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(snapshot.get().toCurrentContentResponse(imageIndex));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Invalid TV name: " + tvName);
         } catch (Exception e) {
@@ -292,61 +258,48 @@ public class ContentScheduleController {
     @GetMapping("/tv/{tvName}/rotation-info")
     public ResponseEntity<?> getRotationInfo(@PathVariable("tvName") String tvName) {
         try {
-            List<ContentSchedule> currentContent = null;
-            
-            // First try to find as a TV entity
-            Optional<TV> tvEntity = tvService.getTVByName(tvName);
-            if (tvEntity.isPresent()) {
-                currentContent = contentScheduleService.getSchedulesForTV(tvEntity.get());
-            } else {
-                // Fallback to TVEnum for backward compatibility
-                try {
-                    TVEnum tvEnum = TVEnum.valueOf(tvName);
-                    currentContent = contentScheduleService.getSchedulesForTV(tvEnum);
-                } catch (IllegalArgumentException enumException) {
-                    return ResponseEntity.badRequest().body("Invalid TV name: " + tvName + ". TV not found in database or enum.");
-                }
+            Optional<ResolvedTVContent> snapshot = snapshotService.getSnapshot(tvName);
+            if (snapshot.isEmpty()) {
+                return unknownTVResponse(tvName, Map.of("hasRotation", false, "message", "No active content"));
             }
             
-            if (currentContent == null || currentContent.isEmpty()) {
-                return ResponseEntity.ok(Map.of("hasRotation", false, "message", "No active content"));
-            }
-            
-            ContentSchedule schedule = currentContent.get(0);
-            Map<String, Object> rotationInfo = new HashMap<>();
-            
-            if (schedule.getContentType().toString().startsWith("IMAGE_") && 
-                schedule.getImageUrls() != null && !schedule.getImageUrls().isEmpty()) {
-                
-                int imagesPerDisplay = switch (schedule.getContentType()) {
-                    case IMAGE_SINGLE -> 1;
-                    case IMAGE_DUAL -> 2;
-                    case IMAGE_QUAD -> 4;
-                    default -> 1;
-                };
-                
-                int totalImages = schedule.getImageUrls().size();
-                int totalRotations = (int) Math.ceil((double) totalImages / imagesPerDisplay);
-                
-                rotationInfo.put("hasRotation", totalRotations > 1);
-                rotationInfo.put("totalImages", totalImages);
-                rotationInfo.put("imagesPerDisplay", imagesPerDisplay);
-                rotationInfo.put("totalRotations", totalRotations);
-                rotationInfo.put("contentType", schedule.getContentType());
-                rotationInfo.put("title", schedule.getTitle());
-            } else {
-                rotationInfo.put("hasRotation", false);
-                rotationInfo.put("contentType", schedule.getContentType());
-                rotationInfo.put("title", schedule.getTitle());
-            }
-            
-            return ResponseEntity.ok(rotationInfo);
+            String etag = snapshot.get().getRotationInfoETag();
+            pollLog.debug(tvName + "/rotation-info", "TV {} polled rotation info (version {})",
+                    tvName, snapshot.get().getVersion());
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(snapshot.get().toRotationInfo());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Invalid TV name: " + tvName);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
+    
+    // Push channel for a TV: the current content is sent on connect and again whenever it changes,
+    // so screens don't need to poll /current and /rotation-info
+    @GetMapping(value = "/tv/{tvName}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamContentForTV(@PathVariable("tvName") String tvName) {
+        Optional<SseEmitter> emitter = streamService.subscribe(tvName);
+        if (emitter.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no") // Don't let reverse proxies buffer the stream
+                .body(emitter.get());
+    }
+    
+    // Response for a TV name that isn't in the database: legacy enum names get the empty
+    // response (an enum TV can only have content through its database entity), anything else is rejected
+    private ResponseEntity<?> unknownTVResponse(String tvName, Map<String, Object> emptyResponse) {
+        try {
+            TVEnum.valueOf(tvName);
+            return ResponseEntity.ok(emptyResponse);
+        } catch (IllegalArgumentException enumException) {
+            return ResponseEntity.badRequest().body("Invalid TV name: " + tvName + ". TV not found in database or enum.");
+        }
+    }
 
     // Debug endpoint to check TV content status
     @GetMapping("/debug/tv/{tvName}")
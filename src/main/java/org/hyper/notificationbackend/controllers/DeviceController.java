@@ -1,18 +1,39 @@
 package org.hyper.notificationbackend.controllers;
 
+import org.hyper.notificationbackend.dto.SensorReadingRequest;
+import org.hyper.notificationbackend.sensors.MetricHistory;
+import org.hyper.notificationbackend.sensors.SensorReading;
 import org.hyper.notificationbackend.services.DeviceService;
+import org.hyper.notificationbackend.services.NiagaraSensorSource;
 import org.hyper.notificationbackend.services.SensorDataCacheService;
 import org.hyper.notificationbackend.services.SensorDataSchedulerService;
+import org.hyper.notificationbackend.services.SensorStoreService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 public class DeviceController {
 
+    private static final Logger log = LoggerFactory.getLogger(DeviceController.class);
+
+    // Longest a manual refresh waits for the update before answering with the cached data
+    private static final long REFRESH_TIMEOUT_SECONDS = 32;
+
     private final DeviceService deviceService;
     
     @Autowired
@@ -20,48 +41,75 @@ public class DeviceController {
     
     @Autowired
     private SensorDataSchedulerService schedulerService;
+    
+    @Autowired
+    private SensorStoreService sensorStore;
 
     public DeviceController(DeviceService deviceService) {
         this.deviceService = deviceService;
     }
 
     @GetMapping("/api/device-data")
-    public Map<String, Object> getDeviceData() {
-        // Return cached data if available, otherwise fetch fresh data
-        if (cacheService.hasCachedData()) {
+    public CompletableFuture<Map<String, Object>> getDeviceData() {
+        cacheService.recordRead();
+        
+        // Stale-while-revalidate: fresh and stale data are answered from the cache, stale data
+        // also starts a background update (joined by concurrent readers, see SensorDataSchedulerService)
+        SensorDataCacheService.Freshness freshness = cacheService.getFreshness();
+        if (freshness != SensorDataCacheService.Freshness.EXPIRED) {
             Map<String, Object> cachedData = cacheService.getCachedSensorData();
             cachedData.put("data_source", "cache");
-            System.out.println("=== RETURNING CACHED DATA (Age: " + cacheService.getDataAgeInSeconds() + " seconds) ===");
-            return cachedData;
-        } else {
-            System.out.println("=== NO CACHED DATA - FETCHING FRESH DATA ===");
-            Map<String, Object> freshData = deviceService.getDeviceData();
-            if (freshData != null && Boolean.TRUE.equals(freshData.get("success"))) {
-                cacheService.updateSensorData(freshData);
+            if (freshness == SensorDataCacheService.Freshness.STALE) {
+                cachedData.put("stale", true);
+                schedulerService.refreshAsync();
             }
-            freshData.put("data_source", "live");
-            return freshData;
+            log.debug("Returning cached data (age: {} seconds, {})", cacheService.getDataAgeInSeconds(), freshness);
+            return CompletableFuture.completedFuture(cachedData);
         }
+        
+        // Nothing cached or too old to serve as current: wait (bounded) for an update through the
+        // scheduler, so the reading is also stored for /latest and /history and the next poll is rescheduled
+        log.info("No current cached data - fetching fresh data");
+        return schedulerService.refreshAsync()
+                .copy()
+                .completeOnTimeout(null, REFRESH_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .handle((ignored, error) -> {
+                    if (error != null) {
+                        log.warn("Sensor data update failed: {}", error.getMessage());
+                    }
+                    if (!cacheService.hasCachedData()) {
+                        Map<String, Object> result = new HashMap<>();
+                        result.put("success", false);
+                        result.put("error", "No sensor data available");
+                        result.put("data_source", "live");
+                        return result;
+                    }
+                    // Old values beat none when the controller is unreachable
+                    boolean updated = cacheService.getFreshness() != SensorDataCacheService.Freshness.EXPIRED;
+                    Map<String, Object> data = cacheService.getCachedSensorData();
+                    data.put("data_source", updated ? "live" : "cache");
+                    if (!updated) {
+                        data.put("stale", true);
+                    }
+                    return data;
+                });
     }
 
     @PostMapping("/api/device-data/refresh")
-    public Map<String, Object> forceRefresh() {
-        System.out.println("=== MANUAL REFRESH TRIGGERED ===");
-        schedulerService.triggerImmediateUpdate();
+    public CompletableFuture<Map<String, Object>> forceRefresh() {
+        log.info("Manual refresh triggered");
         
-        // Wait a moment for the update to complete, then return fresh cached data
-        try {
-            Thread.sleep(2000); // Wait 2 seconds for update to start
-            int maxWait = 30; // Maximum 30 seconds wait
-            while (schedulerService.isCurrentlyUpdating() && maxWait > 0) {
-                Thread.sleep(1000);
-                maxWait--;
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        
-        return cacheService.getCachedSensorData();
+        // Answered when the update has finished (or after the timeout) without holding a request
+        // thread meanwhile; copy() so the timeout doesn't complete an update other callers wait on
+        return schedulerService.refreshAsync()
+                .copy()
+                .completeOnTimeout(null, REFRESH_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .handle((ignored, error) -> {
+                    if (error != null) {
+                        log.warn("Manual refresh failed: {}", error.getMessage());
+                    }
+                    return cacheService.getCachedSensorData();
+                });
     }
 
     @PostMapping("/api/device-data/reauth")
@@ -81,8 +129,52 @@ public class DeviceController {
             "has_cached_data", cacheService.hasCachedData(),
             "last_update_timestamp", cacheService.getLastUpdateTimestamp(),
             "data_age_seconds", cacheService.getDataAgeInSeconds(),
+            "freshness", cacheService.getFreshness(),
             "currently_updating", schedulerService.isCurrentlyUpdating(),
             "cache_data", cacheService.getCachedSensorData()
         );
     }
+    
+    // Latest typed reading of every source and metric
+    @GetMapping("/api/device-data/latest")
+    public Map<String, SensorReading> getLatestReadings() {
+        return sensorStore.getLatestReadings();
+    }
+    
+    // Trend of one metric, e.g. /api/device-data/history?metric=temperature&hours=24
+    @GetMapping("/api/device-data/history")
+    public ResponseEntity<?> getHistory(@RequestParam("metric") String metric,
+                                        @RequestParam(value = "source", defaultValue = NiagaraSensorSource.SOURCE_ID) String source,
+                                        @RequestParam(value = "hours", defaultValue = "24") double hours,
+                                        @RequestParam(value = "maxPoints", defaultValue = "500") int maxPoints) {
+        long since = System.currentTimeMillis() - (long) (hours * 3600_000);
+        Optional<MetricHistory.Series> history = sensorStore.getHistory(source, metric, since);
+        if (history.isEmpty()) {
+            return ResponseEntity.badRequest().body("Error: no history for metric '" + metric + "' from source '" + source + "'");
+        }
+        
+        MetricHistory.Series series = history.get().downsample(maxPoints);
+        Map<String, Object> response = new HashMap<>();
+        response.put("source", source);
+        response.put("metric", metric);
+        response.put("unit", sensorStore.getLatest(source, metric).map(SensorReading::getUnit).orElse(null));
+        response.put("timestamps", series.getTimestamps());
+        response.put("values", series.getValues());
+        return ResponseEntity.ok(response);
+    }
+    
+    // Ingestion endpoint for additional sensor sources pushing their readings
+    @PostMapping("/api/admin/sensors/readings")
+    public ResponseEntity<?> ingestReadings(@RequestBody List<SensorReadingRequest> requests) {
+        try {
+            List<SensorReading> readings = new ArrayList<>(requests.size());
+            for (SensorReadingRequest request : requests) {
+                readings.add(request.toReading());
+            }
+            sensorStore.ingest(readings);
+            return ResponseEntity.ok(Map.of("ingested", readings.size()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
 }
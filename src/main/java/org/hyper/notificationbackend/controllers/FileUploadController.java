@@ -1,5 +1,10 @@
 package org.hyper.notificationbackend.controllers;
 
+import org.hyper.notificationbackend.services.ImageVariantService;
+import org.hyper.notificationbackend.services.MediaStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -7,20 +12,25 @@ import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/content")
 @CrossOrigin(origins = "*", allowCredentials = "false")
 public class FileUploadController {
 
-    @Value("${app.upload.dir:uploads}")
-    private String uploadDir;
+    private static final Logger log = LoggerFactory.getLogger(FileUploadController.class);
+
+    // 1000MB limit to match application.properties
+    private static final long MAX_FILE_SIZE = 1000L * 1024 * 1024;
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
 
     @Value("${server.port:8090}")
     private String serverPort;
@@ -52,76 +62,109 @@ public class FileUploadController {
     @PostMapping("/upload-file")
     public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file, HttpServletRequest request) {
         try {
-            System.out.println("File upload request received: " + file.getOriginalFilename() + " (" + file.getSize() + " bytes)");
+            log.info("File upload request received: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
             
             // Validate file
             if (file.isEmpty()) {
-                System.out.println("Error: No file provided");
+                log.warn("Upload rejected: no file provided");
                 return ResponseEntity.badRequest().body("Error: No file provided");
             }
 
             // Check file size (1000MB limit to match application.properties)
-            long maxFileSize = 1000 * 1024 * 1024; // 1000MB (1GB)
-            if (file.getSize() > maxFileSize) {
-                System.out.println("Error: File size exceeds limit: " + file.getSize() + " > " + maxFileSize);
+            if (file.getSize() > MAX_FILE_SIZE) {
+                log.warn("Upload rejected: file size exceeds limit: {} > {}", file.getSize(), MAX_FILE_SIZE);
                 return ResponseEntity.badRequest().body("Error: File size exceeds 1000MB limit");
             }
 
             // Validate file type
             String contentType = file.getContentType();
-            System.out.println("File content type: " + contentType);
-            if (contentType == null || (!contentType.startsWith("image/") && !contentType.startsWith("video/"))) {
-                System.out.println("Error: Invalid file type: " + contentType);
+            log.debug("File content type: {}", contentType);
+            if (!isMediaType(contentType)) {
+                log.warn("Upload rejected: invalid file type: {}", contentType);
                 return ResponseEntity.badRequest().body("Error: Only image and video files are allowed");
             }
 
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir);
-            System.out.println("Upload directory: " + uploadPath.toAbsolutePath());
-            if (!Files.exists(uploadPath)) {
-                System.out.println("Creating upload directory: " + uploadPath);
-                Files.createDirectories(uploadPath);
+            // Save file under its content hash (identical files are stored once)
+            String originalFilename = file.getOriginalFilename();
+            MediaStorageService.StoredMedia stored;
+            try (InputStream input = file.getInputStream()) {
+                stored = mediaStorageService.store(input, originalFilename, MAX_FILE_SIZE);
             }
+            log.info("File saved successfully: {}{}", stored.getFilename(), (stored.isDeduplicated() ? " (deduplicated)" : ""));
 
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+            return ResponseEntity.ok(buildUploadResponse(stored, originalFilename, contentType, request));
+
+        } catch (IOException e) {
+            log.error("IO exception during file upload", e);
+            return ResponseEntity.badRequest().body("Error uploading file: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected exception during file upload", e);
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    // Upload a single file as the raw request body (Content-Type is the file type, original
+    // name in the X-Filename header or filename parameter). The body is streamed straight to
+    // disk while it is hashed, without multipart buffering, so large videos take one disk pass.
+    @PostMapping("/upload-stream")
+    public ResponseEntity<?> uploadStream(@RequestHeader(value = "X-Filename", required = false) String headerFilename,
+                                          @RequestParam(value = "filename", required = false) String paramFilename,
+                                          HttpServletRequest request) {
+        try {
+            String contentType = request.getContentType();
+            if (!isMediaType(contentType)) {
+                log.warn("Upload rejected: invalid file type: {}", contentType);
+                return ResponseEntity.badRequest().body("Error: Only image and video files are allowed");
+            }
+
+            long contentLength = request.getContentLengthLong();
+            if (contentLength > MAX_FILE_SIZE) {
+                return ResponseEntity.badRequest().body("Error: File size exceeds 1000MB limit");
             }
-            String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
 
-            // Save file
-            Path filePath = uploadPath.resolve(uniqueFilename);
-            System.out.println("Saving file to: " + filePath.toAbsolutePath());
-            Files.copy(file.getInputStream(), filePath);
-            System.out.println("File saved successfully: " + uniqueFilename);
+            String originalFilename = headerFilename != null ? headerFilename : paramFilename;
+            log.info("Streaming upload request received: {} ({} bytes)", originalFilename, contentLength);
 
-            // Return file URL
-            String fileUrl = getUploadBaseUrl(request) + "/" + uniqueFilename;
-            System.out.println("File URL: " + fileUrl);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("fileUrl", fileUrl);
-            response.put("filename", uniqueFilename);
-            response.put("originalFilename", originalFilename);
-            response.put("size", file.getSize());
-            response.put("contentType", contentType);
+            MediaStorageService.StoredMedia stored;
+            try (InputStream input = request.getInputStream()) {
+                stored = mediaStorageService.store(input, originalFilename, MAX_FILE_SIZE);
+            }
+            log.info("File saved successfully: {}{}", stored.getFilename(), (stored.isDeduplicated() ? " (deduplicated)" : ""));
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(buildUploadResponse(stored, originalFilename, contentType, request));
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         } catch (IOException e) {
-            System.out.println("IO Exception during file upload: " + e.getMessage());
-            e.printStackTrace();
+            log.error("IO exception during streaming upload", e);
             return ResponseEntity.badRequest().body("Error uploading file: " + e.getMessage());
-        } catch (Exception e) {
-            System.out.println("General exception during file upload: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
 
+    private boolean isMediaType(String contentType) {
+        return contentType != null && (contentType.startsWith("image/") || contentType.startsWith("video/"));
+    }
+
+    private Map<String, Object> buildUploadResponse(MediaStorageService.StoredMedia stored, String originalFilename,
+                                                    String contentType, HttpServletRequest request) {
+        // Resized variants per TV layout are generated in the background
+        imageVariantService.generateVariantsAsync(stored.getFilename());
+
+        String fileUrl = getUploadBaseUrl(request) + "/" + stored.getFilename();
+        log.debug("File URL: {}", fileUrl);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("fileUrl", fileUrl);
+        response.put("filename", stored.getFilename());
+        response.put("originalFilename", originalFilename);
+        response.put("size", stored.getSize());
+        response.put("contentType", contentType);
+        response.put("sha256", stored.getSha256());
+        response.put("deduplicated", stored.isDeduplicated());
+        return response;
+    }
+
     // Upload multiple files
     @PostMapping("/upload-files")
     public ResponseEntity<?> uploadFiles(@RequestParam("files") MultipartFile[] files, HttpServletRequest request) {
@@ -154,19 +197,22 @@ public class FileUploadController {
         }
     }
 
-    // Delete a file
+    // Delete a file (kept if another schedule or profile still uses the same content)
     @DeleteMapping("/delete-file/{filename}")
     public ResponseEntity<?> deleteFile(@PathVariable String filename) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename);
+            if (!mediaStorageService.exists(filename)) {
+                return ResponseEntity.notFound().build();
+            }
             
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
+            if (mediaStorageService.deleteIfUnreferenced(filename)) {
+                imageVariantService.deleteVariants(filename);
                 return ResponseEntity.ok(Map.of("success", true, "message", "File deleted successfully"));
-            } else {
-                return ResponseEntity.notFound().build();
             }
+            return ResponseEntity.ok(Map.of("success", true, "message", "File is still used by other content and was kept"));
             
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         } catch (IOException e) {
             return ResponseEntity.badRequest().body("Error deleting file: " + e.getMessage());
         }
@@ -0,0 +1,193 @@
+package org.hyper.notificationbackend.controllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hyper.notificationbackend.services.MediaStorageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves uploaded media under /uploads/**. Content-addressed files (named by their SHA-256)
+ * never change, so they are sent with a one year immutable Cache-Control and their hash as
+ * ETag. Byte ranges are supported for video seeking, and on Tomcat the file is handed to
+ * the connector's sendfile so it goes from disk to socket without passing through the heap.
+ */
+@RestController
+public class MediaController {
+
+    private static final String URL_PREFIX = "/uploads/";
+
+    // <sha256>.<ext> as written by MediaStorageService, or variants/<sha256>-<layout>-<settings>.jpg from ImageVariantService
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("(?:.*/)?([0-9a-f]{64})(?:[-.][A-Za-z0-9.-]*)?");
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private static final String IMMUTABLE_CACHE = "public, max-age=31536000, immutable";
+    // Older uploads have random names; they are never rewritten but may be deleted
+    private static final String LEGACY_CACHE = "public, max-age=86400";
+
+    // Tomcat request attributes for sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serveMedia(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String relativePath = request.getRequestURI().substring(request.getContextPath().length());
+        relativePath = UriUtils.decode(relativePath.substring(URL_PREFIX.length()), StandardCharsets.UTF_8);
+
+        Path file;
+        try {
+            // Hidden entries (e.g. the .incoming upload area) are never served
+            if (relativePath.isEmpty() || relativePath.startsWith(".") || relativePath.contains("/.")) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            file = mediaStorageService.resolve(relativePath);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        Matcher contentAddressed = CONTENT_ADDRESSED.matcher(relativePath);
+        String etag = contentAddressed.matches()
+                ? "\"" + contentAddressed.group(1) + "\""
+                : "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, contentAddressed.matches() ? IMMUTABLE_CACHE : LEGACY_CACHE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // Answers 304 and sets ETag / Last-Modified
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        MediaType mediaType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(mediaType.toString());
+
+        // Byte range (single range only; multi-range requests get the whole file)
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, etag, lastModified)) {
+            Matcher matcher = SINGLE_RANGE.matcher(range.trim());
+            // Invalid ranges ("bytes=-", or last < first as in "bytes=500-100") are ignored: the whole file is sent
+            if (matcher.matches() && isValidRange(matcher.group(1), matcher.group(2))) {
+                boolean satisfiable;
+                if (matcher.group(1).isEmpty()) {
+                    // Suffix range: the last N bytes
+                    long suffix = parsePosition(matcher.group(2));
+                    start = Math.max(0, length - suffix);
+                    satisfiable = suffix > 0 && length > 0;
+                } else {
+                    start = parsePosition(matcher.group(1));
+                    if (!matcher.group(2).isEmpty()) {
+                        end = Math.min(parsePosition(matcher.group(2)), length - 1);
+                    }
+                    satisfiable = start < length;
+                }
+
+                if (!satisfiable) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        // Let Tomcat send the file straight from disk to the socket
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        // Otherwise stream through channels
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+            out.flush();
+        }
+    }
+
+    private static boolean isValidRange(String first, String last) {
+        if (first.isEmpty() || last.isEmpty()) {
+            return !(first.isEmpty() && last.isEmpty());
+        }
+        return parsePosition(last) >= parsePosition(first);
+    }
+
+    // Digits only (see SINGLE_RANGE); a position too large for a long is past the end of any file
+    private static long parsePosition(String digits) {
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    // A Range is only honoured if If-Range (when present) still matches the current file
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return ifRangeDate >= 0 && lastModified / 1000 <= ifRangeDate / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
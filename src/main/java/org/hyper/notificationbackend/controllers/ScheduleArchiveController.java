@@ -0,0 +1,72 @@
+package org.hyper.notificationbackend.controllers;
+
+import org.hyper.notificationbackend.models.ArchivedContentSchedule;
+import org.hyper.notificationbackend.services.ScheduleArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/admin/archive")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ScheduleArchiveController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    @Autowired
+    private ScheduleArchiveService scheduleArchiveService;
+
+    // Search archived content by TV name and shown time range (ISO date-times), newest first
+    @GetMapping
+    public ResponseEntity<?> searchArchive(@RequestParam(value = "tv", required = false) String tvName,
+                                           @RequestParam(value = "from", required = false)
+                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                           @RequestParam(value = "to", required = false)
+                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                           @RequestParam(value = "page", defaultValue = "0") int page,
+                                           @RequestParam(value = "size", defaultValue = "50") int size) {
+        try {
+            if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest().body("Error: page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+            }
+            Page<ArchivedContentSchedule> result = scheduleArchiveService.search(tvName, from, to, PageRequest.of(page, size));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("items", result.getContent());
+            response.put("page", page);
+            response.put("size", size);
+            response.put("total", result.getTotalElements());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    // Get one archived content schedule by its original id
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getArchivedSchedule(@PathVariable("id") Long id) {
+        Optional<ArchivedContentSchedule> archived = scheduleArchiveService.getArchivedSchedule(id);
+        return archived.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Run the archiving now instead of waiting for the next scheduled run
+    @PostMapping("/run")
+    public ResponseEntity<?> runArchive() {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("archived", scheduleArchiveService.archiveExpired());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package org.hyper.notificationbackend.dto;
+
+import org.hyper.notificationbackend.models.ContentSchedule;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the content a TV should currently display.
+ * Built once from the database and served to polling TVs until a schedule
+ * boundary is reached or the underlying data changes.
+ */
+public final class ResolvedTVContent {
+    private final Long tvId;
+    private final String tvName;
+    private final LocalDateTime resolvedAt;
+    // The snapshot must be rebuilt at (or after) this instant
+    private final LocalDateTime expiresAt;
+
+    // Highest priority content, null when nothing is active for the TV
+    private final Long scheduleId;
+    private final String title;
+    private final ContentSchedule.ContentType contentType;
+    private final String content;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final List<String> imageUrls;
+    private final List<String> videoUrls;
+
+    // Hash of everything the TV displays, computed once per snapshot (used for ETags)
+    private final String version;
+
+    private ResolvedTVContent(Long tvId, String tvName, ContentSchedule schedule, List<String> imageUrls,
+                              LocalDateTime resolvedAt, LocalDateTime expiresAt) {
+        this.tvId = tvId;
+        this.tvName = tvName;
+        this.resolvedAt = resolvedAt;
+        this.expiresAt = expiresAt;
+
+        if (schedule != null) {
+            this.scheduleId = schedule.getId();
+            this.title = schedule.getTitle();
+            this.contentType = schedule.getContentType();
+            this.content = schedule.getContent();
+            this.startTime = schedule.getStartTime();
+            this.endTime = schedule.getEndTime();
+            this.imageUrls = imageUrls != null ? List.copyOf(imageUrls) : null;
+            this.videoUrls = schedule.getVideoUrls() != null ? List.copyOf(schedule.getVideoUrls()) : null;
+        } else {
+            this.scheduleId = null;
+            this.title = null;
+            this.contentType = null;
+            this.content = null;
+            this.startTime = null;
+            this.endTime = null;
+            this.imageUrls = null;
+            this.videoUrls = null;
+        }
+        this.version = computeVersion();
+    }
+
+    // Factory method for a TV showing the given schedule (or nothing if null)
+    public static ResolvedTVContent of(Long tvId, String tvName, ContentSchedule schedule,
+                                       LocalDateTime resolvedAt, LocalDateTime expiresAt) {
+        return of(tvId, tvName, schedule, schedule != null ? schedule.getImageUrls() : null, resolvedAt, expiresAt);
+    }
+
+    // Same, but showing the given image URLs (e.g. resized variants) instead of the schedule's originals
+    public static ResolvedTVContent of(Long tvId, String tvName, ContentSchedule schedule, List<String> imageUrls,
+                                       LocalDateTime resolvedAt, LocalDateTime expiresAt) {
+        return new ResolvedTVContent(tvId, tvName, schedule, imageUrls, resolvedAt, expiresAt);
+    }
+
+    // Stable hash of the displayed fields: identical content always gets the same version,
+    // independent of when the snapshot was resolved
+    private String computeVersion() {
+        String fingerprint = String.join("\u0000",
+                String.valueOf(tvId), String.valueOf(scheduleId), String.valueOf(title),
+                String.valueOf(contentType), String.valueOf(content),
+                String.valueOf(startTime), String.valueOf(endTime),
+                String.valueOf(imageUrls), String.valueOf(videoUrls));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is always available on the JVM
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Strong ETag for /current: the response also depends on the requested rotation index
+    public String getCurrentContentETag(int imageIndex) {
+        return "\"" + version + "-" + imageIndex + "\"";
+    }
+
+    // Strong ETag for /rotation-info
+    public String getRotationInfoETag() {
+        return "\"" + version + "-rotation\"";
+    }
+
+    public boolean hasContent() {
+        return scheduleId != null;
+    }
+
+    // A snapshot stays valid until its expiry instant is reached
+    public boolean isValidAt(LocalDateTime time) {
+        return time.isBefore(expiresAt);
+    }
+
+    public boolean isImageContent() {
+        return contentType != null && contentType.toString().startsWith("IMAGE_")
+                && imageUrls != null && !imageUrls.isEmpty();
+    }
+
+    // How many images are shown at once for the content type
+    public int getImagesPerDisplay() {
+        if (contentType == null) {
+            return 1;
+        }
+        return switch (contentType) {
+            case IMAGE_SINGLE -> 1;
+            case IMAGE_DUAL -> 2;
+            case IMAGE_QUAD -> 4;
+            default -> 1;
+        };
+    }
+
+    public int getTotalRotations() {
+        if (imageUrls == null || imageUrls.isEmpty()) {
+            return 0;
+        }
+        return (int) Math.ceil((double) imageUrls.size() / getImagesPerDisplay());
+    }
+
+    // Images to display for the given rotation index
+    public List<String> getImagesForRotation(int imageIndex) {
+        int totalImages = imageUrls.size();
+        int imagesPerDisplay = getImagesPerDisplay();
+
+        // Calculate which images to show based on the current rotation index
+        int startIndex = Math.floorMod(imageIndex * imagesPerDisplay, totalImages);
+        List<String> currentImages = new ArrayList<>(imagesPerDisplay);
+
+        for (int i = 0; i < imagesPerDisplay; i++) {
+            int currentImageIndex = (startIndex + i) % totalImages;
+            currentImages.add(imageUrls.get(currentImageIndex));
+        }
+        return currentImages;
+    }
+
+    // Response body for /api/content/tv/{tvName}/current
+    public Map<String, Object> toCurrentContentResponse(int imageIndex) {
+        if (!hasContent()) {
+            return Map.of("message", "No active content for this TV");
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", scheduleId);
+        response.put("title", title);
+        response.put("contentType", contentType);
+        response.put("content", content);
+        response.put("isTimedContent", startTime != null && endTime != null);
+        response.put("startTime", startTime);
+        response.put("endTime", endTime);
+
+        // Handle image rotation for image content types
+        if (isImageContent()) {
+            int imagesPerDisplay = getImagesPerDisplay();
+            response.put("imageUrls", getImagesForRotation(imageIndex));
+            response.put("totalImages", imageUrls.size());
+            response.put("currentRotationIndex", imageIndex);
+            response.put("imagesPerDisplay", imagesPerDisplay);
+            response.put("totalRotations", getTotalRotations());
+        } else {
+            response.put("imageUrls", imageUrls);
+        }
+
+        // Add video URLs if present
+        if (videoUrls != null && !videoUrls.isEmpty()) {
+            response.put("videoUrls", videoUrls);
+        }
+
+        return response;
+    }
+
+    // Response body for /api/content/tv/{tvName}/rotation-info
+    public Map<String, Object> toRotationInfo() {
+        if (!hasContent()) {
+            return Map.of("hasRotation", false, "message", "No active content");
+        }
+
+        Map<String, Object> rotationInfo = new HashMap<>();
+        if (isImageContent()) {
+            int totalRotations = getTotalRotations();
+            rotationInfo.put("hasRotation", totalRotations > 1);
+            rotationInfo.put("totalImages", imageUrls.size());
+            rotationInfo.put("imagesPerDisplay", getImagesPerDisplay());
+            rotationInfo.put("totalRotations", totalRotations);
+        } else {
+            rotationInfo.put("hasRotation", false);
+        }
+        rotationInfo.put("contentType", contentType);
+        rotationInfo.put("title", title);
+        return rotationInfo;
+    }
+
+    // Getters
+    public Long getTvId() { return tvId; }
+
+    public String getTvName() { return tvName; }
+
+    public LocalDateTime getResolvedAt() { return resolvedAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+
+    public Long getScheduleId() { return scheduleId; }
+
+    public String getTitle() { return title; }
+
+    public ContentSchedule.ContentType getContentType() { return contentType; }
+
+    public String getContent() { return content; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+
+    public LocalDateTime getEndTime() { return endTime; }
+
+    public List<String> getImageUrls() { return imageUrls; }
+
+    public List<String> getVideoUrls() { return videoUrls; }
+
+    public String getVersion() { return version; }
+}
@@ -0,0 +1,73 @@
+package org.hyper.notificationbackend.dto;
+
+import org.hyper.notificationbackend.sensors.SensorReading;
+
+/**
+ * DTO for readings pushed by external sensor sources
+ */
+public class SensorReadingRequest {
+    private String sourceId;
+    private String metric;
+    private Double value;
+    private String unit;
+    private Long timestamp; // epoch milliseconds, defaults to now
+
+    // Constructors
+    public SensorReadingRequest() {}
+
+    // Convert to a typed reading
+    public SensorReading toReading() {
+        if (sourceId == null || sourceId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Sensor source id cannot be empty");
+        }
+        if (metric == null || metric.trim().isEmpty()) {
+            throw new IllegalArgumentException("Sensor metric cannot be empty");
+        }
+        if (value == null || value.isNaN() || value.isInfinite()) {
+            throw new IllegalArgumentException("Sensor value must be a number");
+        }
+        long readingTime = timestamp != null ? timestamp : System.currentTimeMillis();
+        return new SensorReading(sourceId.trim(), metric.trim(), value, unit, readingTime);
+    }
+
+    // Getters and Setters
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(String sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public Double getValue() {
+        return value;
+    }
+
+    public void setValue(Double value) {
+        this.value = value;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,77 @@
+package org.hyper.notificationbackend.events;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Published whenever something that influences what a TV displays has changed
+ * (content schedules, TVs, scheduler transitions). Listeners use it to drop
+ * cached per-TV state instead of re-querying on every request.
+ */
+public class ContentChangedEvent {
+
+    public enum Origin {
+        ADMIN,      // Changes made through the API
+        SCHEDULER,  // Changes made by the scheduled content management
+        MEDIA       // Uploaded media changed on disk (e.g. resized image variants became available)
+    }
+
+    private final Origin origin;
+    private final boolean allTVs;
+    private final Set<Long> tvIds;
+    // False when only TVs themselves changed (created, renamed, toggled, deleted), not content schedules
+    private final boolean schedulesChanged;
+
+    private ContentChangedEvent(Origin origin, boolean allTVs, Set<Long> tvIds, boolean schedulesChanged) {
+        this.origin = origin;
+        this.allTVs = allTVs;
+        this.tvIds = Collections.unmodifiableSet(new HashSet<>(tvIds));
+        this.schedulesChanged = schedulesChanged;
+    }
+
+    // Event affecting only the given TVs
+    public static ContentChangedEvent forTVs(Origin origin, Set<Long> tvIds) {
+        return new ContentChangedEvent(origin, false, tvIds, true);
+    }
+
+    // Event affecting every TV
+    public static ContentChangedEvent forAllTVs(Origin origin) {
+        return new ContentChangedEvent(origin, true, Set.of(), true);
+    }
+
+    // An admin change to a TV itself: what it displays may change, its schedules did not
+    public static ContentChangedEvent forTVChange(Long tvId) {
+        return new ContentChangedEvent(Origin.ADMIN, false, Set.of(tvId), false);
+    }
+
+    public Origin getOrigin() {
+        return origin;
+    }
+
+    public boolean isAllTVs() {
+        return allTVs;
+    }
+
+    public Set<Long> getTvIds() {
+        return tvIds;
+    }
+
+    public boolean isSchedulesChanged() {
+        return schedulesChanged;
+    }
+
+    public boolean affectsTV(Long tvId) {
+        return allTVs || tvIds.contains(tvId);
+    }
+
+    @Override
+    public String toString() {
+        return "ContentChangedEvent{" +
+                "origin=" + origin +
+                ", allTVs=" + allTVs +
+                ", tvIds=" + tvIds +
+                ", schedulesChanged=" + schedulesChanged +
+                '}';
+    }
+}
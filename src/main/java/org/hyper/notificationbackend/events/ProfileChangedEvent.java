@@ -0,0 +1,50 @@
+package org.hyper.notificationbackend.events;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Published when a profile or a profile assignment changes, so that connected
+ * TVs can be told to reload their profile.
+ */
+public class ProfileChangedEvent {
+
+    private final boolean allTVs;
+    private final Set<Long> tvIds;
+
+    private ProfileChangedEvent(boolean allTVs, Set<Long> tvIds) {
+        this.allTVs = allTVs;
+        this.tvIds = Collections.unmodifiableSet(new HashSet<>(tvIds));
+    }
+
+    // Event affecting only the given TVs (assignment changes)
+    public static ProfileChangedEvent forTVs(Set<Long> tvIds) {
+        return new ProfileChangedEvent(false, tvIds);
+    }
+
+    // Event affecting every TV the profile may be assigned to (profile edits)
+    public static ProfileChangedEvent forAllTVs() {
+        return new ProfileChangedEvent(true, Set.of());
+    }
+
+    public boolean isAllTVs() {
+        return allTVs;
+    }
+
+    public Set<Long> getTvIds() {
+        return tvIds;
+    }
+
+    public boolean affectsTV(Long tvId) {
+        return allTVs || tvIds.contains(tvId);
+    }
+
+    @Override
+    public String toString() {
+        return "ProfileChangedEvent{" +
+                "allTVs=" + allTVs +
+                ", tvIds=" + tvIds +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package org.hyper.notificationbackend.logging;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logger for high-frequency events such as TV polls. Each key (e.g. a TV name) is logged
+ * at most once per interval; the next line reports how many events were skipped in between.
+ * Nothing is counted while the level is disabled, so a turned-off category costs one check.
+ */
+public class SampledLogger {
+
+    private final Logger logger;
+    private final long intervalNanos;
+
+    // Per key: when the next line may be written and how many events were skipped since the last one
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    private static final class Window {
+        private final AtomicLong nextAllowedAt = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong suppressed = new AtomicLong();
+    }
+
+    public SampledLogger(Logger logger, Duration interval) {
+        this.logger = logger;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    public void debug(String key, String format, Object... args) {
+        if (logger.isDebugEnabled()) {
+            Object[] sampled = sample(key, args);
+            if (sampled != null) {
+                logger.debug(format + " ({} similar suppressed)", sampled);
+            }
+        }
+    }
+
+    public void info(String key, String format, Object... args) {
+        if (logger.isInfoEnabled()) {
+            Object[] sampled = sample(key, args);
+            if (sampled != null) {
+                logger.info(format + " ({} similar suppressed)", sampled);
+            }
+        }
+    }
+
+    // Returns the arguments with the suppressed count appended, or null if this event is skipped
+    private Object[] sample(String key, Object[] args) {
+        Window window = windows.computeIfAbsent(key, k -> new Window());
+        long now = System.nanoTime();
+        long nextAllowedAt = window.nextAllowedAt.get();
+        if ((nextAllowedAt != Long.MIN_VALUE && now - nextAllowedAt < 0)
+                || !window.nextAllowedAt.compareAndSet(nextAllowedAt, now + intervalNanos)) {
+            window.suppressed.incrementAndGet();
+            return null;
+        }
+        Object[] sampled = Arrays.copyOf(args, args.length + 1);
+        sampled[args.length] = window.suppressed.getAndSet(0);
+        return sampled;
+    }
+}
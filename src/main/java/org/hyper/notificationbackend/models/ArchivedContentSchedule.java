@@ -0,0 +1,197 @@
+package org.hyper.notificationbackend.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-only copy of a content schedule that ended longer ago than the retention window,
+ * moved out of the live tables by ScheduleArchiveService. Keeps the original id.
+ */
+@Entity
+@Table(name = "content_schedules_archive", indexes = {
+    @Index(name = "idx_archive_last_end", columnList = "last_end_time"),
+    @Index(name = "idx_archive_archived_at", columnList = "archived_at")
+})
+public class ArchivedContentSchedule {
+    @Id
+    private Long id;
+
+    private String title;
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "content_type", length = 50)
+    private ContentSchedule.ContentType contentType;
+
+    @Column(columnDefinition = "LONGTEXT")
+    private String content;
+
+    @ElementCollection
+    @CollectionTable(name = "content_images_archive", joinColumns = @JoinColumn(name = "schedule_id"))
+    @Column(name = "image_url", columnDefinition = "LONGTEXT")
+    private List<String> imageUrls = new ArrayList<>();
+
+    @ElementCollection
+    @CollectionTable(name = "content_videos_archive", joinColumns = @JoinColumn(name = "schedule_id"))
+    @Column(name = "video_url", columnDefinition = "LONGTEXT")
+    private List<String> videoUrls = new ArrayList<>();
+
+    // TV names at the time of archiving (TVs may have been renamed or deleted since)
+    @ElementCollection
+    @CollectionTable(name = "content_tv_archive", joinColumns = @JoinColumn(name = "schedule_id"),
+                     indexes = @Index(name = "idx_content_tv_archive_tv", columnList = "tv_name"))
+    @Column(name = "tv_name", length = 50)
+    private Set<String> targetTVNames = new HashSet<>();
+
+    @ElementCollection
+    @CollectionTable(name = "time_schedules_archive", joinColumns = @JoinColumn(name = "schedule_id"))
+    @OrderBy("startTime ASC")
+    private List<TimeSlot> timeSlots = new ArrayList<>();
+
+    @Column(name = "is_immediate")
+    private boolean immediate;
+
+    @Column(name = "is_daily_schedule")
+    private boolean dailySchedule;
+
+    @Column(name = "daily_start_time")
+    private String dailyStartTime;
+
+    @Column(name = "daily_end_time")
+    private String dailyEndTime;
+
+    // Range covered by the time slots (null for content without slots)
+    @Column(name = "first_start_time")
+    private LocalDateTime firstStartTime;
+
+    @Column(name = "last_end_time")
+    private LocalDateTime lastEndTime;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Embeddable
+    public static class TimeSlot {
+        @Column(name = "start_time", nullable = false)
+        private LocalDateTime startTime;
+
+        @Column(name = "end_time", nullable = false)
+        private LocalDateTime endTime;
+
+        public TimeSlot() {}
+
+        public TimeSlot(LocalDateTime startTime, LocalDateTime endTime) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        public LocalDateTime getStartTime() {
+            return startTime;
+        }
+
+        public LocalDateTime getEndTime() {
+            return endTime;
+        }
+    }
+
+    // Constructors
+    public ArchivedContentSchedule() {}
+
+    public static ArchivedContentSchedule of(ContentSchedule schedule, LocalDateTime archivedAt) {
+        ArchivedContentSchedule archived = new ArchivedContentSchedule();
+        archived.id = schedule.getId();
+        archived.title = schedule.getTitle();
+        archived.description = schedule.getDescription();
+        archived.contentType = schedule.getContentType();
+        archived.content = schedule.getContent();
+        archived.imageUrls = new ArrayList<>(schedule.getImageUrls());
+        archived.videoUrls = new ArrayList<>(schedule.getVideoUrls());
+        for (TV tv : schedule.getTargetTVs()) {
+            archived.targetTVNames.add(tv.getName());
+        }
+        for (TimeSchedule timeSchedule : schedule.getTimeSchedules()) {
+            archived.timeSlots.add(new TimeSlot(timeSchedule.getStartTime(), timeSchedule.getEndTime()));
+            if (archived.firstStartTime == null || timeSchedule.getStartTime().isBefore(archived.firstStartTime)) {
+                archived.firstStartTime = timeSchedule.getStartTime();
+            }
+            if (archived.lastEndTime == null || timeSchedule.getEndTime().isAfter(archived.lastEndTime)) {
+                archived.lastEndTime = timeSchedule.getEndTime();
+            }
+        }
+        archived.immediate = schedule.isImmediate();
+        archived.dailySchedule = schedule.isDailySchedule();
+        archived.dailyStartTime = schedule.getDailyStartTime();
+        archived.dailyEndTime = schedule.getDailyEndTime();
+        archived.archivedAt = archivedAt;
+        return archived;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public ContentSchedule.ContentType getContentType() {
+        return contentType;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public List<String> getImageUrls() {
+        return imageUrls;
+    }
+
+    public List<String> getVideoUrls() {
+        return videoUrls;
+    }
+
+    public Set<String> getTargetTVNames() {
+        return targetTVNames;
+    }
+
+    public List<TimeSlot> getTimeSlots() {
+        return timeSlots;
+    }
+
+    public boolean isImmediate() {
+        return immediate;
+    }
+
+    public boolean isDailySchedule() {
+        return dailySchedule;
+    }
+
+    public String getDailyStartTime() {
+        return dailyStartTime;
+    }
+
+    public String getDailyEndTime() {
+        return dailyEndTime;
+    }
+
+    public LocalDateTime getFirstStartTime() {
+        return firstStartTime;
+    }
+
+    public LocalDateTime getLastEndTime() {
+        return lastEndTime;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -318,6 +318,38 @@ public class ContentSchedule {
         }
     }
     
+    // Helper method to get the next instant at which the daily window opens or closes
+    // (null if this is not a valid daily schedule). The window covers whole minutes,
+    // so it closes at the start of the minute following the end time.
+    public LocalDateTime getNextDailyBoundary(LocalDateTime currentTime) {
+        if (!isDailySchedule() || dailyStartTime == null || dailyEndTime == null) {
+            return null;
+        }
+
+        try {
+            String[] startParts = dailyStartTime.split(":");
+            String[] endParts = dailyEndTime.split(":");
+
+            int startTimeMinutes = Integer.parseInt(startParts[0]) * 60 + Integer.parseInt(startParts[1]);
+            int endTimeMinutes = Integer.parseInt(endParts[0]) * 60 + Integer.parseInt(endParts[1]);
+
+            LocalDateTime nextStart = nextMinuteOfDay(currentTime, startTimeMinutes);
+            LocalDateTime nextEnd = nextMinuteOfDay(currentTime, endTimeMinutes + 1);
+            return nextStart.isBefore(nextEnd) ? nextStart : nextEnd;
+        } catch (Exception e) {
+            // If parsing fails, there is no boundary
+            return null;
+        }
+    }
+
+    private static LocalDateTime nextMinuteOfDay(LocalDateTime currentTime, int minuteOfDay) {
+        LocalDateTime candidate = currentTime.toLocalDate().atStartOfDay().plusMinutes(minuteOfDay);
+        while (!candidate.isAfter(currentTime)) {
+            candidate = candidate.plusDays(1);
+        }
+        return candidate;
+    }
+
     // Helper method to get the next upcoming time schedule
     public TimeSchedule getNextUpcomingSchedule(LocalDateTime currentTime) {
         return timeSchedules.stream()
@@ -1,8 +1,11 @@
 package org.hyper.notificationbackend.models;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "time_schedules")
@@ -20,10 +23,24 @@ public class TimeSchedule {
     @Column(name = "active")
     private boolean active = true;
     
-    // Store IDs of content that was temporarily disabled by this schedule
+    // Legacy comma separated list of content IDs disabled by this schedule, superseded by
+    // suppressedContent. Only read to migrate rows written before the relation existed.
+    @Deprecated
     @Column(name = "temporarily_disabled_content_ids", columnDefinition = "TEXT")
+    @JsonIgnore
     private String temporarilyDisabledContentIds;
     
+    // Content this schedule temporarily disables while it runs (indexed from both sides)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+        name = "time_schedule_suppressions",
+        joinColumns = @JoinColumn(name = "time_schedule_id"),
+        inverseJoinColumns = @JoinColumn(name = "content_schedule_id"),
+        indexes = @Index(name = "idx_suppression_content", columnList = "content_schedule_id")
+    )
+    @JsonIgnore
+    private Set<ContentSchedule> suppressedContent = new HashSet<>();
+    
     // Many-to-one relationship with ContentSchedule
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "content_schedule_id", nullable = false)
@@ -84,14 +101,24 @@ public class TimeSchedule {
         this.active = active;
     }
     
+    @Deprecated
     public String getTemporarilyDisabledContentIds() {
         return temporarilyDisabledContentIds;
     }
     
+    @Deprecated
     public void setTemporarilyDisabledContentIds(String temporarilyDisabledContentIds) {
         this.temporarilyDisabledContentIds = temporarilyDisabledContentIds;
     }
     
+    public Set<ContentSchedule> getSuppressedContent() {
+        return suppressedContent;
+    }
+    
+    public void setSuppressedContent(Set<ContentSchedule> suppressedContent) {
+        this.suppressedContent = suppressedContent;
+    }
+    
     public ContentSchedule getContentSchedule() {
         return contentSchedule;
     }
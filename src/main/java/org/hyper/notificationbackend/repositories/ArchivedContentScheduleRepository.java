@@ -0,0 +1,30 @@
+package org.hyper.notificationbackend.repositories;
+
+import org.hyper.notificationbackend.models.ArchivedContentSchedule;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ArchivedContentScheduleRepository extends JpaRepository<ArchivedContentSchedule, Long> {
+    // Search the archive by TV name and/or the time range the content was shown in (all filters optional),
+    // most recently ended first
+    @Query(value = "SELECT a FROM ArchivedContentSchedule a WHERE " +
+                   "(:tvName IS NULL OR :tvName MEMBER OF a.targetTVNames) AND " +
+                   "(:from IS NULL OR a.lastEndTime >= :from) AND " +
+                   "(:to IS NULL OR a.firstStartTime <= :to) " +
+                   "ORDER BY a.lastEndTime DESC, a.id DESC",
+           countQuery = "SELECT COUNT(a) FROM ArchivedContentSchedule a WHERE " +
+                        "(:tvName IS NULL OR :tvName MEMBER OF a.targetTVNames) AND " +
+                        "(:from IS NULL OR a.lastEndTime >= :from) AND " +
+                        "(:to IS NULL OR a.firstStartTime <= :to)")
+    Page<ArchivedContentSchedule> search(@Param("tvName") String tvName,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         Pageable pageable);
+}
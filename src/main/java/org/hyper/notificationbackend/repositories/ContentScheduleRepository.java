@@ -2,11 +2,14 @@ package org.hyper.notificationbackend.repositories;
 
 import org.hyper.notificationbackend.models.ContentSchedule;
 import org.hyper.notificationbackend.models.TV;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -37,6 +40,34 @@ public interface ContentScheduleRepository extends JpaRepository<ContentSchedule
     @Query("SELECT c FROM ContentSchedule c JOIN c.targetTVs t WHERE t = ?1 AND c.active = true AND c.dailySchedule = true")
     List<ContentSchedule> findDailyScheduleForTV(TV tv);
     
+    // Find all active daily scheduled content
+    @Query("SELECT c FROM ContentSchedule c WHERE c.active = true AND c.dailySchedule = true")
+    List<ContentSchedule> findActiveDailySchedules();
+    
+    // Find all immediate content (active or not) for a specific TV
+    @Query("SELECT c FROM ContentSchedule c JOIN c.targetTVs t WHERE t = ?1 AND c.immediate = true")
+    List<ContentSchedule> findAllImmediateForTV(TV tv);
+    
+    // Find active content that is only shown through its time schedules
+    @Query("SELECT c FROM ContentSchedule c WHERE c.active = true AND " +
+           "(c.immediate = false OR c.immediate IS NULL) AND (c.dailySchedule = false OR c.dailySchedule IS NULL)")
+    List<ContentSchedule> findActiveTimedSchedules();
+    
+    // Inactive timed content whose time schedules all ended before the cutoff and that no running time
+    // schedule suppresses anymore: nothing can bring it back, so ScheduleArchiveService moves it out
+    @Query("SELECT c.id FROM ContentSchedule c WHERE c.active = false AND " +
+           "(c.immediate = false OR c.immediate IS NULL) AND (c.dailySchedule = false OR c.dailySchedule IS NULL) AND " +
+           "EXISTS (SELECT ts FROM TimeSchedule ts WHERE ts.contentSchedule = c) AND " +
+           "NOT EXISTS (SELECT ts FROM TimeSchedule ts WHERE ts.contentSchedule = c AND ts.endTime >= :cutoff) AND " +
+           "NOT EXISTS (SELECT s FROM TimeSchedule s JOIN s.suppressedContent sc WHERE sc = c AND s.active = true) " +
+           "ORDER BY c.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    // Count schedules whose images, videos or content point at an uploaded file
+    @Query("SELECT COUNT(DISTINCT c) FROM ContentSchedule c LEFT JOIN c.imageUrls i LEFT JOIN c.videoUrls v WHERE " +
+           "i LIKE CONCAT('%/', ?1) OR v LIKE CONCAT('%/', ?1) OR c.content LIKE CONCAT('%/', ?1, '%')")
+    long countMediaReferences(String filename);
+    
     // Find upcoming schedules for a specific TV (deprecated - use TimeScheduleRepository instead)
     @Deprecated
     @Query("SELECT c FROM ContentSchedule c JOIN c.targetTVs t WHERE t = ?1 AND c.active = true AND c.startTime > ?2 ORDER BY c.startTime ASC")
@@ -53,4 +84,30 @@ public interface ContentScheduleRepository extends JpaRepository<ContentSchedule
            "     ELSE 3 END ASC, " +
            "c.startTime ASC")
     List<ContentSchedule> findActiveContentForTVPrioritized(TV tv, LocalDateTime currentTime);
+    
+    // Initialize one collection of the given schedules with a single query (see ContentScheduleService.fetchResponseData)
+    @Query("SELECT DISTINCT c FROM ContentSchedule c LEFT JOIN FETCH c.imageUrls WHERE c.id IN ?1")
+    List<ContentSchedule> fetchImageUrls(Collection<Long> ids);
+    
+    @Query("SELECT DISTINCT c FROM ContentSchedule c LEFT JOIN FETCH c.videoUrls WHERE c.id IN ?1")
+    List<ContentSchedule> fetchVideoUrls(Collection<Long> ids);
+    
+    @Query("SELECT DISTINCT c FROM ContentSchedule c LEFT JOIN FETCH c.targetTVs WHERE c.id IN ?1")
+    List<ContentSchedule> fetchTargetTVs(Collection<Long> ids);
+    
+    @Query("SELECT DISTINCT c FROM ContentSchedule c LEFT JOIN FETCH c.timeSchedules WHERE c.id IN ?1")
+    List<ContentSchedule> fetchTimeSchedules(Collection<Long> ids);
+    
+    // Active daily schedules of several TVs at once, as (TV id, content schedule) pairs
+    @Query("SELECT t.id, c FROM ContentSchedule c JOIN c.targetTVs t WHERE t IN ?1 AND c.active = true AND c.dailySchedule = true")
+    List<Object[]> findDailySchedulesForTVs(Collection<TV> tvs);
+    
+    // All immediate content (active or not) of several TVs at once, as (TV id, content schedule) pairs
+    @Query("SELECT t.id, c FROM ContentSchedule c JOIN c.targetTVs t WHERE t IN ?1 AND c.immediate = true")
+    List<Object[]> findAllImmediateForTVs(Collection<TV> tvs);
+    
+    // Active content disabled by a time schedule that is running at the given time (strictly inside its window)
+    @Query("SELECT DISTINCT c FROM TimeSchedule ts JOIN ts.suppressedContent c " +
+           "WHERE ts.active = true AND ts.startTime < ?1 AND ts.endTime > ?1 AND c.active = true")
+    List<ContentSchedule> findActiveSuppressedAt(LocalDateTime currentTime);
 }
@@ -29,4 +29,9 @@ public interface TVProfileRepository extends JpaRepository<TVProfile, Long> {
     // Find profiles by name containing (case insensitive)
     @Query("SELECT p FROM TVProfile p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) AND p.active = true ORDER BY p.name ASC")
     List<TVProfile> findByNameContainingIgnoreCase(@Param("name") String name);
+    
+    // Count profile slides whose images, videos or content point at an uploaded file
+    @Query("SELECT COUNT(DISTINCT s) FROM ProfileSlide s LEFT JOIN s.imageUrls i LEFT JOIN s.videoUrls v WHERE " +
+           "i LIKE CONCAT('%/', :filename) OR v LIKE CONCAT('%/', :filename) OR s.content LIKE CONCAT('%/', :filename, '%')")
+    long countSlideMediaReferences(@Param("filename") String filename);
 }
@@ -3,37 +3,39 @@ package org.hyper.notificationbackend.repositories;
 import org.hyper.notificationbackend.models.TimeSchedule;
 import org.hyper.notificationbackend.models.TV;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TimeScheduleRepository extends JpaRepository<TimeSchedule, Long> {
     
-    // Find currently active time schedules
-    @Query("SELECT ts FROM TimeSchedule ts WHERE ts.active = true AND ts.startTime <= :currentTime AND ts.endTime >= :currentTime")
+    // Find currently active time schedules (with their content schedule)
+    @Query("SELECT ts FROM TimeSchedule ts JOIN FETCH ts.contentSchedule WHERE ts.active = true AND ts.startTime <= :currentTime AND ts.endTime >= :currentTime")
     List<TimeSchedule> findCurrentlyActive(@Param("currentTime") LocalDateTime currentTime);
     
-    // Find upcoming time schedules
-    @Query("SELECT ts FROM TimeSchedule ts WHERE ts.active = true AND ts.startTime > :currentTime ORDER BY ts.startTime ASC")
+    // Find upcoming time schedules (with their content schedule)
+    @Query("SELECT ts FROM TimeSchedule ts JOIN FETCH ts.contentSchedule WHERE ts.active = true AND ts.startTime > :currentTime ORDER BY ts.startTime ASC")
     List<TimeSchedule> findUpcoming(@Param("currentTime") LocalDateTime currentTime);
     
     // Find expired time schedules
     @Query("SELECT ts FROM TimeSchedule ts WHERE ts.active = true AND ts.endTime < :currentTime")
     List<TimeSchedule> findExpired(@Param("currentTime") LocalDateTime currentTime);
     
-    // Find currently active time schedules for a specific TV
-    @Query("SELECT ts FROM TimeSchedule ts JOIN ts.contentSchedule cs JOIN cs.targetTVs tv " +
+    // Find currently active time schedules for a specific TV (with their content schedule)
+    @Query("SELECT ts FROM TimeSchedule ts JOIN FETCH ts.contentSchedule cs JOIN cs.targetTVs tv " +
            "WHERE tv = :tv AND ts.active = true AND cs.active = true AND " +
            "ts.startTime <= :currentTime AND ts.endTime >= :currentTime " +
            "ORDER BY ts.startTime ASC")
     List<TimeSchedule> findCurrentlyActiveForTV(@Param("tv") TV tv, @Param("currentTime") LocalDateTime currentTime);
     
-    // Find upcoming time schedules for a specific TV
-    @Query("SELECT ts FROM TimeSchedule ts JOIN ts.contentSchedule cs JOIN cs.targetTVs tv " +
+    // Find upcoming time schedules for a specific TV (with their content schedule)
+    @Query("SELECT ts FROM TimeSchedule ts JOIN FETCH ts.contentSchedule cs JOIN cs.targetTVs tv " +
            "WHERE tv = :tv AND ts.active = true AND cs.active = true AND " +
            "ts.startTime > :currentTime " +
            "ORDER BY ts.startTime ASC")
@@ -48,14 +50,25 @@ public interface TimeScheduleRepository extends JpaRepository<TimeSchedule, Long
     @Query("SELECT ts FROM TimeSchedule ts WHERE ts.contentSchedule.id = :contentScheduleId ORDER BY ts.startTime ASC")
     List<TimeSchedule> findByContentScheduleId(@Param("contentScheduleId") Long contentScheduleId);
     
-    // Find overlapping time schedules for a specific TV within a time range
-    @Query("SELECT ts FROM TimeSchedule ts JOIN ts.contentSchedule cs JOIN cs.targetTVs tv " +
-           "WHERE tv = :tv AND ts.active = true AND cs.active = true AND " +
-           "((ts.startTime < :endTime AND ts.endTime > :startTime)) " +
-           "ORDER BY ts.startTime ASC")
-    List<TimeSchedule> findOverlappingForTV(@Param("tv") TV tv, 
-                                           @Param("startTime") LocalDateTime startTime, 
-                                           @Param("endTime") LocalDateTime endTime);
+    // Active time schedules of active content for several TVs at once, as (TV id, time schedule) pairs,
+    // limited to those ending after the given time
+    @Query("SELECT tv.id, ts FROM TimeSchedule ts JOIN ts.contentSchedule cs JOIN cs.targetTVs tv " +
+           "WHERE tv IN :tvs AND ts.active = true AND cs.active = true AND ts.endTime > :after")
+    List<Object[]> findActiveForTVsEndingAfter(@Param("tvs") Collection<TV> tvs, @Param("after") LocalDateTime after);
+    
+    // Who suppresses what right now: (time schedule id, suppressed content id) for every running schedule
+    @Query("SELECT ts.id, c.id FROM TimeSchedule ts JOIN ts.suppressedContent c " +
+           "WHERE ts.active = true AND ts.startTime <= :currentTime AND ts.endTime >= :currentTime")
+    List<Object[]> findRunningSuppressions(@Param("currentTime") LocalDateTime currentTime);
+    
+    // Time schedules still carrying the legacy comma separated suppression list
+    @Query("SELECT ts FROM TimeSchedule ts WHERE ts.temporarilyDisabledContentIds IS NOT NULL AND ts.temporarilyDisabledContentIds <> ''")
+    List<TimeSchedule> findWithLegacySuppressions();
+    
+    // Remove a content schedule from every suppression list (before deleting it)
+    @Modifying
+    @Query(value = "DELETE FROM time_schedule_suppressions WHERE content_schedule_id = :contentScheduleId", nativeQuery = true)
+    void deleteSuppressionsOfContent(@Param("contentScheduleId") Long contentScheduleId);
     
     // Delete all time schedules for a content schedule
     @Query("DELETE FROM TimeSchedule ts WHERE ts.contentSchedule.id = :contentScheduleId")
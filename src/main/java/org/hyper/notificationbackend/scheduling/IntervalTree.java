@@ -0,0 +1,87 @@
+package org.hyper.notificationbackend.scheduling;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Static interval tree over time ranges: items are sorted by start time and laid out as an
+ * implicit balanced binary tree where each node also knows the latest end time of its subtree.
+ * Overlap queries take O(log n + k) for k matches.
+ *
+ * Built once from a snapshot of the items (it is not updated in place).
+ */
+public final class IntervalTree<T> {
+
+    private final List<T> items;
+    private final LocalDateTime[] starts;
+    private final LocalDateTime[] ends;
+    // Latest end time within the subtree rooted at each index of the sorted array
+    private final LocalDateTime[] maxEnds;
+
+    public IntervalTree(List<T> items, Function<T, LocalDateTime> start, Function<T, LocalDateTime> end) {
+        this.items = new ArrayList<>(items);
+        this.items.sort(Comparator.comparing(start));
+        int size = this.items.size();
+        starts = new LocalDateTime[size];
+        ends = new LocalDateTime[size];
+        maxEnds = new LocalDateTime[size];
+        for (int i = 0; i < size; i++) {
+            starts[i] = start.apply(this.items.get(i));
+            ends[i] = end.apply(this.items.get(i));
+        }
+        computeMaxEnds(0, size - 1);
+    }
+
+    private LocalDateTime computeMaxEnds(int low, int high) {
+        if (low > high) {
+            return null;
+        }
+        int mid = (low + high) >>> 1;
+        LocalDateTime max = ends[mid];
+        LocalDateTime left = computeMaxEnds(low, mid - 1);
+        LocalDateTime right = computeMaxEnds(mid + 1, high);
+        if (left != null && left.isAfter(max)) {
+            max = left;
+        }
+        if (right != null && right.isAfter(max)) {
+            max = right;
+        }
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    // Items whose range overlaps (start, end): item.start < end and item.end > start,
+    // the overlap ContentScheduleService uses to find the slots a new schedule overrides. Ordered by start time.
+    public List<T> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        List<T> result = new ArrayList<>();
+        collect(0, items.size() - 1, start, end, result);
+        return result;
+    }
+
+    private void collect(int low, int high, LocalDateTime start, LocalDateTime end, List<T> result) {
+        if (low > high) {
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        // Nothing in this subtree ends late enough
+        if (!maxEnds[mid].isAfter(start)) {
+            return;
+        }
+        collect(low, mid - 1, start, end, result);
+        // Everything from here on (and to the right) starts too late
+        if (!starts[mid].isBefore(end)) {
+            return;
+        }
+        if (ends[mid].isAfter(start)) {
+            result.add(items.get(mid));
+        }
+        collect(mid + 1, high, start, end, result);
+    }
+}
@@ -0,0 +1,75 @@
+package org.hyper.notificationbackend.scheduling;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A point in time at which the content shown on some TVs changes:
+ * a time schedule starting or ending, or a daily window opening or closing.
+ */
+public final class ScheduleTransition implements Comparable<ScheduleTransition> {
+
+    public enum Type {
+        TIME_SCHEDULE_START,    // targetId is a TimeSchedule id
+        TIME_SCHEDULE_END,      // targetId is a TimeSchedule id
+        DAILY_WINDOW_BOUNDARY   // targetId is a ContentSchedule id
+    }
+
+    private final LocalDateTime at;
+    private final Type type;
+    private final Long targetId;
+
+    public ScheduleTransition(LocalDateTime at, Type type, Long targetId) {
+        this.at = Objects.requireNonNull(at);
+        this.type = Objects.requireNonNull(type);
+        this.targetId = Objects.requireNonNull(targetId);
+    }
+
+    public LocalDateTime getAt() {
+        return at;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public boolean isDueAt(LocalDateTime time) {
+        return !at.isAfter(time);
+    }
+
+    // Ordered by time; at the same instant starts are applied before ends
+    @Override
+    public int compareTo(ScheduleTransition other) {
+        int byTime = at.compareTo(other.at);
+        if (byTime != 0) {
+            return byTime;
+        }
+        return type.compareTo(other.type);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ScheduleTransition)) return false;
+        ScheduleTransition that = (ScheduleTransition) o;
+        return at.equals(that.at) && type == that.type && targetId.equals(that.targetId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(at, type, targetId);
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduleTransition{" +
+                "at=" + at +
+                ", type=" + type +
+                ", targetId=" + targetId +
+                '}';
+    }
+}
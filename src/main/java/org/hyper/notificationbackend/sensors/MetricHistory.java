@@ -0,0 +1,105 @@
+package org.hyper.notificationbackend.sensors;
+
+/**
+ * Fixed-size history of one metric, stored in primitive ring buffers so memory per
+ * metric never grows (e.g. 5760 points = 24h at 15s resolution).
+ */
+public class MetricHistory {
+
+    private final long[] timestamps;
+    private final double[] values;
+    private int next;  // Index the next value is written to
+    private int size;
+
+    public MetricHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("History capacity must be at least 1");
+        }
+        this.timestamps = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    public synchronized void add(long timestamp, double value) {
+        timestamps[next] = timestamp;
+        values[next] = value;
+        next = (next + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    // Copy of the points recorded at or after the given time, oldest first
+    public synchronized Series since(long sinceTimestamp) {
+        int oldest = (next - size + timestamps.length) % timestamps.length;
+
+        // Skip points older than the requested window
+        int skip = 0;
+        while (skip < size && timestamps[(oldest + skip) % timestamps.length] < sinceTimestamp) {
+            skip++;
+        }
+
+        int count = size - skip;
+        long[] seriesTimestamps = new long[count];
+        double[] seriesValues = new double[count];
+        for (int i = 0; i < count; i++) {
+            int index = (oldest + skip + i) % timestamps.length;
+            seriesTimestamps[i] = timestamps[index];
+            seriesValues[i] = values[index];
+        }
+        return new Series(seriesTimestamps, seriesValues);
+    }
+
+    /**
+     * Immutable copy of a part of the history.
+     */
+    public static final class Series {
+        private final long[] timestamps;
+        private final double[] values;
+
+        Series(long[] timestamps, double[] values) {
+            this.timestamps = timestamps;
+            this.values = values;
+        }
+
+        public int size() {
+            return timestamps.length;
+        }
+
+        public long[] getTimestamps() {
+            return timestamps.clone();
+        }
+
+        public double[] getValues() {
+            return values.clone();
+        }
+
+        // Average consecutive points into at most maxPoints buckets (for trend charts)
+        public Series downsample(int maxPoints) {
+            if (maxPoints <= 0 || timestamps.length <= maxPoints) {
+                return this;
+            }
+
+            long[] bucketTimestamps = new long[maxPoints];
+            double[] bucketValues = new double[maxPoints];
+            for (int bucket = 0; bucket < maxPoints; bucket++) {
+                int from = (int) ((long) bucket * timestamps.length / maxPoints);
+                int to = (int) ((long) (bucket + 1) * timestamps.length / maxPoints);
+                double sum = 0;
+                for (int i = from; i < to; i++) {
+                    sum += values[i];
+                }
+                bucketTimestamps[bucket] = timestamps[to - 1];
+                bucketValues[bucket] = sum / (to - from);
+            }
+            return new Series(bucketTimestamps, bucketValues);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package org.hyper.notificationbackend.sensors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts sensor values from a Niagara Px page in one pass over its title attributes,
+ * e.g. title="T° moyenne CTA 1 = = 28.7 °C {ok} @ def" (label, value, unit).
+ *
+ * Which titles feed which metric comes from app.niagara.sensor-points, a comma-separated list of
+ * metric|unit|label points: a title matches a point when its unit is the point's unit and its label
+ * contains the point's label (case-insensitive, empty matches any label). Points are in priority
+ * order: per metric the first matching point wins, so "temperature|°C|CTA" before "temperature|°C|"
+ * prefers the CTA reading over the outside one. The scan stops once every metric has its top point.
+ * New sensor points only need a new entry in the property.
+ */
+@Component
+public class SensorHtmlParser {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorHtmlParser.class);
+
+    public static final String DEFAULT_POINTS =
+            "temperature|°C|CTA,temperature|°C|moyenne,temperature|°C|," +
+            "pressure|Pa|," +
+            "humidity|%RH|CTA,humidity|%RH|moyenne,humidity|%RH|";
+
+    private static final String TITLE_START = "title=\"";
+
+    private final List<Point> points;
+    private final List<String> metrics;
+    // Per metric: the "<value> <unit>" pattern for the display text fallback, compiled once
+    private final Map<String, Pattern> fallbackPatterns;
+    private final boolean textFallback;
+
+    private record Point(String metric, String unit, String label, int rank) {}
+
+    public SensorHtmlParser(@Value("${app.niagara.sensor-points:" + DEFAULT_POINTS + "}") String sensorPoints,
+                            @Value("${app.niagara.parser.text-fallback:true}") boolean textFallback) {
+        this.points = parsePoints(sensorPoints);
+        this.textFallback = textFallback;
+
+        List<String> metricNames = new ArrayList<>();
+        Map<String, Pattern> patterns = new HashMap<>();
+        for (Point point : points) {
+            if (!metricNames.contains(point.metric())) {
+                metricNames.add(point.metric());
+                patterns.put(point.metric(), Pattern.compile("([\\d.-]+)\\s*" + unitRegex(point.unit())));
+            }
+        }
+        this.metrics = List.copyOf(metricNames);
+        this.fallbackPatterns = Map.copyOf(patterns);
+    }
+
+    public List<String> getMetrics() {
+        return metrics;
+    }
+
+    // Returns metric -> value and metric_unit -> unit for every metric found
+    public Map<String, String> parse(String html) {
+        Map<String, String> sensorData = new LinkedHashMap<>();
+        // Rank of the point each metric's current value came from (lower is better)
+        Map<String, Integer> foundRanks = new HashMap<>();
+
+        int position = 0;
+        while (foundRanks.size() < metrics.size() || !allTopRanked(foundRanks)) {
+            int start = html.indexOf(TITLE_START, position);
+            if (start < 0) {
+                break;
+            }
+            start += TITLE_START.length();
+            int end = html.indexOf('"', start);
+            if (end < 0) {
+                break;
+            }
+            position = end + 1;
+            parseTitle(html, start, end, sensorData, foundRanks);
+        }
+
+        if (textFallback && foundRanks.size() < metrics.size()) {
+            log.debug("Using fallback parsing from display text...");
+            for (String metric : metrics) {
+                if (sensorData.containsKey(metric)) {
+                    continue;
+                }
+                Matcher matcher = fallbackPatterns.get(metric).matcher(html);
+                if (matcher.find()) {
+                    sensorData.put(metric, matcher.group(1));
+                    sensorData.put(metric + "_unit", unitOf(metric));
+                    log.debug("✓ {} (fallback): {}", metric, matcher.group(1));
+                }
+            }
+        }
+        return sensorData;
+    }
+
+    // One title attribute, html[start, end): "<label> = = <value> <unit> {status} @ facets"
+    private void parseTitle(String html, int start, int end, Map<String, String> sensorData, Map<String, Integer> foundRanks) {
+        int labelEnd = html.indexOf('=', start);
+        while (labelEnd >= 0 && labelEnd < end) {
+            int valueStart = skip(html, labelEnd, end, true);
+            int valueEnd = valueStart;
+            while (valueEnd < end && isNumberChar(html.charAt(valueEnd))) {
+                valueEnd++;
+            }
+            if (valueEnd > valueStart) {
+                int unitStart = skip(html, valueEnd, end, false);
+                int unitEnd = unitStart;
+                while (unitEnd < end && !isUnitEnd(html.charAt(unitEnd))) {
+                    unitEnd++;
+                }
+                if (unitEnd > unitStart) {
+                    match(html, start, labelEnd, valueStart, valueEnd, unitStart, unitEnd, sensorData, foundRanks);
+                }
+                return;
+            }
+            labelEnd = html.indexOf('=', labelEnd + 1);
+        }
+    }
+
+    private void match(String html, int labelStart, int labelEnd, int valueStart, int valueEnd, int unitStart, int unitEnd,
+                       Map<String, String> sensorData, Map<String, Integer> foundRanks) {
+        for (Point point : points) {
+            Integer found = foundRanks.get(point.metric());
+            if (found != null && found <= point.rank()) {
+                continue;
+            }
+            if (!unitMatches(html, unitStart, unitEnd, point.unit())
+                    || !containsIgnoreCase(html, labelStart, labelEnd, point.label())) {
+                continue;
+            }
+            String value = html.substring(valueStart, valueEnd);
+            sensorData.put(point.metric(), value);
+            sensorData.put(point.metric() + "_unit", point.unit());
+            foundRanks.put(point.metric(), point.rank());
+            if (log.isDebugEnabled()) {
+                log.debug("✓ {} ({}): {} {}", point.metric(), html.substring(labelStart, labelEnd).trim(), value, point.unit());
+            }
+            return;
+        }
+    }
+
+    private boolean allTopRanked(Map<String, Integer> foundRanks) {
+        for (Integer rank : foundRanks.values()) {
+            if (rank != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Skip whitespace (and the "= =" separators when skipEquals)
+    private static int skip(String html, int from, int end, boolean skipEquals) {
+        int i = from;
+        while (i < end) {
+            char c = html.charAt(i);
+            if (Character.isWhitespace(c) || (skipEquals && c == '=')) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static boolean isNumberChar(char c) {
+        return (c >= '0' && c <= '9') || c == '.' || c == '-';
+    }
+
+    private static boolean isUnitEnd(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '}';
+    }
+
+    // Units compare on their ASCII part: whatever the degree sign was decoded as (°, ░, Θ, Â°...) is
+    // skipped on both sides, so "Â°C", "ΘC" and "C" all match "°C". "%" alone counts as "%RH".
+    private static boolean unitMatches(String html, int start, int end, String unit) {
+        int i = skipNonAscii(html, start, end);
+        int j = skipNonAscii(unit, 0, unit.length());
+        if (end - i == unit.length() - j && html.regionMatches(i, unit, j, end - i)) {
+            return true;
+        }
+        return unit.startsWith("%") && end - start == 1 && html.charAt(start) == '%';
+    }
+
+    private static int skipNonAscii(String text, int from, int end) {
+        int i = from;
+        while (i < end && text.charAt(i) > 0x7F) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean containsIgnoreCase(String html, int start, int end, String keyword) {
+        if (keyword.isEmpty()) {
+            return true;
+        }
+        for (int i = start; i + keyword.length() <= end; i++) {
+            if (html.regionMatches(true, i, keyword, 0, keyword.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String unitOf(String metric) {
+        for (Point point : points) {
+            if (point.metric().equals(metric)) {
+                return point.unit();
+            }
+        }
+        return null;
+    }
+
+    // A leading degree sign may be decoded as any non-ASCII text (but must be there: "3 C" in prose is no reading)
+    private static String unitRegex(String unit) {
+        int asciiStart = skipNonAscii(unit, 0, unit.length());
+        if (asciiStart > 0) {
+            return "[^\\x00-\\x7F]+" + Pattern.quote(unit.substring(asciiStart));
+        }
+        return Pattern.quote(unit);
+    }
+
+    private static List<Point> parsePoints(String spec) {
+        List<Point> parsed = new ArrayList<>();
+        Map<String, Integer> ranks = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("\\|", -1);
+            if (parts.length != 3 || parts[0].isBlank() || parts[1].isBlank()) {
+                throw new IllegalArgumentException("Invalid sensor point '" + entry + "', expected metric|unit|label");
+            }
+            String metric = parts[0].trim().toLowerCase(Locale.ROOT);
+            int rank = ranks.merge(metric, 1, Integer::sum) - 1;
+            parsed.add(new Point(metric, parts[1].trim(), parts[2].trim(), rank));
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("No sensor points configured");
+        }
+        return List.copyOf(parsed);
+    }
+}
@@ -0,0 +1,62 @@
+package org.hyper.notificationbackend.sensors;
+
+import java.util.Objects;
+
+/**
+ * A single typed sensor value (e.g. temperature 21.5 °C) from one ingestion source.
+ */
+public final class SensorReading {
+    private final String sourceId;
+    private final String metric;
+    private final double value;
+    private final String unit;
+    private final long timestamp; // epoch milliseconds
+
+    public SensorReading(String sourceId, String metric, double value, String unit, long timestamp) {
+        this.sourceId = Objects.requireNonNull(sourceId);
+        this.metric = Objects.requireNonNull(metric);
+        this.value = value;
+        this.unit = unit;
+        this.timestamp = timestamp;
+    }
+
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    // Key identifying the series this reading belongs to
+    public String getSeriesKey() {
+        return seriesKey(sourceId, metric);
+    }
+
+    public static String seriesKey(String sourceId, String metric) {
+        return sourceId + "/" + metric;
+    }
+
+    @Override
+    public String toString() {
+        return "SensorReading{" +
+                "sourceId='" + sourceId + '\'' +
+                ", metric='" + metric + '\'' +
+                ", value=" + value +
+                ", unit='" + unit + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
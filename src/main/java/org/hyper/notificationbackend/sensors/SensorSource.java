@@ -0,0 +1,16 @@
+package org.hyper.notificationbackend.sensors;
+
+import java.util.List;
+
+/**
+ * A source of sensor readings polled by the sensor scheduler. Every Spring bean
+ * implementing this interface is polled and its readings go into the sensor store.
+ */
+public interface SensorSource {
+
+    // Stable identifier stored with each reading (e.g. "niagara")
+    String getSourceId();
+
+    // Read the current values; throw if the source is unavailable
+    List<SensorReading> readSensors() throws Exception;
+}
@@ -10,8 +10,10 @@ public class ContentCleanupService {
     @Autowired
     private ContentScheduleService contentScheduleService;
     
-    // Run every minute to check for expired content and restore disabled content
-    @Scheduled(fixedRate = 60000) // 60 seconds
+    // Transitions are applied on time by ScheduleTransitionEngine; this periodic full
+    // reconciliation is only a safety net (default every 15 minutes)
+    @Scheduled(fixedRateString = "${app.schedule.reconcile-interval-ms:900000}",
+               initialDelayString = "${app.schedule.reconcile-interval-ms:900000}")
     public void cleanupExpiredContent() {
         contentScheduleService.manageScheduledContent();
     }
@@ -6,11 +6,20 @@ import org.hyper.notificationbackend.models.TV;
 import org.hyper.notificationbackend.models.TVEnum;
 import org.hyper.notificationbackend.repositories.ContentScheduleRepository;
 import org.hyper.notificationbackend.repositories.TimeScheduleRepository;
+import org.hyper.notificationbackend.scheduling.IntervalTree;
+import org.hyper.notificationbackend.scheduling.ScheduleTransition;
 import org.hyper.notificationbackend.dto.ContentScheduleRequest;
+import org.hyper.notificationbackend.dto.ResolvedTVContent;
+import org.hyper.notificationbackend.events.ContentChangedEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.scheduling.annotation.Scheduled;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -19,6 +28,8 @@ import java.util.stream.Collectors;
 @Service
 @Transactional
 public class ContentScheduleService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentScheduleService.class);
     
     @Autowired
     private ContentScheduleRepository contentScheduleRepository;
@@ -29,6 +40,24 @@ public class ContentScheduleService {
     @Autowired
     private TVService tvService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ImageVariantService imageVariantService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Helper method to notify listeners (e.g. the TV content snapshots) that content for these TVs changed
+    private void publishContentChanged(Collection<TV> tvs) {
+        Set<Long> tvIds = tvs.stream()
+                .map(TV::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        eventPublisher.publishEvent(ContentChangedEvent.forTVs(ContentChangedEvent.Origin.ADMIN, tvIds));
+    }
+    
     // Helper method to convert TV names to TV entities
     private Set<TV> convertTVNamesToEntities(Set<String> tvNames) {
         return tvNames.stream()
@@ -58,14 +87,10 @@ public class ContentScheduleService {
         ContentSchedule contentSchedule = new ContentSchedule();
         
         // Debug logging
-        System.out.println("=== DEBUG: Converting ContentScheduleRequest ===");
-        System.out.println("Request isImmediate: " + request.isImmediate());
-        System.out.println("Request isDailySchedule: " + request.isDailySchedule());
-        System.out.println("Request dailyStartTime: " + request.getDailyStartTime());
-        System.out.println("Request dailyEndTime: " + request.getDailyEndTime());
-        System.out.println("Request timeSchedules: " + (request.getTimeSchedules() != null ? request.getTimeSchedules().size() : "null"));
-        System.out.println("Request startTime: " + request.getStartTime());
-        System.out.println("Request endTime: " + request.getEndTime());
+        log.debug("Converting ContentScheduleRequest: immediate={}, dailySchedule={}, daily={}-{}, timeSchedules={}, start={}, end={}",
+                request.isImmediate(), request.isDailySchedule(), request.getDailyStartTime(), request.getDailyEndTime(),
+                request.getTimeSchedules() != null ? request.getTimeSchedules().size() : "null",
+                request.getStartTime(), request.getEndTime());
         
         contentSchedule.setTitle(request.getTitle());
         contentSchedule.setDescription(request.getDescription());
@@ -87,18 +112,18 @@ public class ContentScheduleService {
         // Handle time schedules - support daily schedule, multiple schedules, and legacy format
         List<TimeSchedule> timeSchedules = new ArrayList<>();
         
-        System.out.println("=== DEBUG: Processing schedule type ===");
+        log.debug("Processing schedule type");
         
         // Check if this is explicitly set as immediate content
         if (request.isImmediate()) {
-            System.out.println("DEBUG: Setting as IMMEDIATE content");
+            log.debug("Setting as IMMEDIATE content");
             contentSchedule.setImmediate(true);
             contentSchedule.setDailySchedule(false);
-            System.out.println("DEBUG: After immediate - immediate is: " + contentSchedule.isImmediate());
+            log.debug("After immediate - immediate is: {}", contentSchedule.isImmediate());
         }
         // First, check if this is a daily schedule
         else if (request.isDailySchedule()) {
-            System.out.println("DEBUG: Setting as DAILY SCHEDULE");
+            log.debug("Setting as DAILY SCHEDULE");
             contentSchedule.setDailySchedule(true);
             contentSchedule.setDailyStartTime(request.getDailyStartTime());
             contentSchedule.setDailyEndTime(request.getDailyEndTime());
@@ -107,12 +132,12 @@ public class ContentScheduleService {
             contentSchedule.setTimeSchedules(timeSchedules);
             // Now set immediate to false for daily schedules
             contentSchedule.setImmediate(false);
-            System.out.println("DEBUG: Daily schedule - immediate set to: " + contentSchedule.isImmediate());
+            log.debug("Daily schedule - immediate set to: {}", contentSchedule.isImmediate());
             // Skip the rest of the logic for daily schedules
         }
         // Check if we have new format time schedules (multiple schedules)
         else if (request.getTimeSchedules() != null && !request.getTimeSchedules().isEmpty()) {
-            System.out.println("DEBUG: Processing time schedules");
+            log.debug("Processing time schedules");
             for (ContentScheduleRequest.TimeScheduleRequest tsRequest : request.getTimeSchedules()) {
                 TimeSchedule timeSchedule = new TimeSchedule();
                 timeSchedule.setStartTime(tsRequest.getStartTime());
@@ -123,11 +148,11 @@ public class ContentScheduleService {
             }
             contentSchedule.setTimeSchedules(timeSchedules);
             contentSchedule.setImmediate(false);
-            System.out.println("DEBUG: After time schedules - immediate is: " + contentSchedule.isImmediate());
+            log.debug("After time schedules - immediate is: {}", contentSchedule.isImmediate());
         } 
         // Check legacy format (single start/end time)
         else if (request.getStartTime() != null && request.getEndTime() != null) {
-            System.out.println("DEBUG: Processing legacy format");
+            log.debug("Processing legacy format");
             TimeSchedule timeSchedule = new TimeSchedule();
             timeSchedule.setStartTime(request.getStartTime());
             timeSchedule.setEndTime(request.getEndTime());
@@ -136,27 +161,22 @@ public class ContentScheduleService {
             timeSchedules.add(timeSchedule);
             contentSchedule.setTimeSchedules(timeSchedules);
             contentSchedule.setImmediate(false);
-            System.out.println("DEBUG: After legacy format - immediate is: " + contentSchedule.isImmediate());
+            log.debug("After legacy format - immediate is: {}", contentSchedule.isImmediate());
         }
         // No time schedules and not daily schedule - immediate content
         else if (!request.isDailySchedule()) {
-            System.out.println("DEBUG: No schedules found and not daily, setting as IMMEDIATE content");
+            log.debug("No schedules found and not daily, setting as IMMEDIATE content");
             contentSchedule.setTimeSchedules(timeSchedules);
             contentSchedule.setImmediate(true);
-            System.out.println("DEBUG: After setting immediate - immediate is: " + contentSchedule.isImmediate());
+            log.debug("After setting immediate - immediate is: {}", contentSchedule.isImmediate());
         }
         
-        System.out.println("DEBUG: Before final debug - immediate is: " + contentSchedule.isImmediate());
-        
         // Set active to true by default (since DTO doesn't include this field)
         contentSchedule.setActive(request.isActive());
         
-        System.out.println("=== DEBUG: Final ContentSchedule state ===");
-        System.out.println("Final isImmediate: " + contentSchedule.isImmediate());
-        System.out.println("Final isDailySchedule: " + contentSchedule.isDailySchedule());
-        System.out.println("Final dailyStartTime: " + contentSchedule.getDailyStartTime());
-        System.out.println("Final dailyEndTime: " + contentSchedule.getDailyEndTime());
-        System.out.println("=== END DEBUG ===");
+        log.debug("Final ContentSchedule state: immediate={}, dailySchedule={}, daily={}-{}",
+                contentSchedule.isImmediate(), contentSchedule.isDailySchedule(),
+                contentSchedule.getDailyStartTime(), contentSchedule.getDailyEndTime());
         
         return contentSchedule;
     }
@@ -164,8 +184,8 @@ public class ContentScheduleService {
     // Create a new content schedule with multiple time schedules support
     @Transactional
     public ContentSchedule createSchedule(ContentSchedule contentSchedule) {
-        System.out.println("DEBUG: createSchedule() - incoming immediate: " + contentSchedule.isImmediate());
-        System.out.println("DEBUG: createSchedule() - incoming isDailySchedule: " + contentSchedule.isDailySchedule());
+        log.debug("createSchedule() - incoming immediate: {}", contentSchedule.isImmediate());
+        log.debug("createSchedule() - incoming isDailySchedule: {}", contentSchedule.isDailySchedule());
         
         validateSchedule(contentSchedule);
         
@@ -175,18 +195,18 @@ public class ContentScheduleService {
         if (!contentSchedule.isDailySchedule()) {
             isImmediate = (contentSchedule.getTimeSchedules() == null || contentSchedule.getTimeSchedules().isEmpty());
             contentSchedule.setImmediate(isImmediate);
-            System.out.println("DEBUG: Not a daily schedule, setting immediate to: " + isImmediate);
+            log.debug("Not a daily schedule, setting immediate to: {}", isImmediate);
         } else {
             isImmediate = contentSchedule.isImmediate();
-            System.out.println("DEBUG: Is daily schedule, keeping immediate as: " + contentSchedule.isImmediate());
+            log.debug("Is daily schedule, keeping immediate as: {}", contentSchedule.isImmediate());
         }
         
         // Handle content override logic (skip for daily schedules - they are managed by the scheduled task)
         if (!contentSchedule.isDailySchedule()) {
-            System.out.println("DEBUG: Calling handleContentOverride for non-daily schedule");
+            log.debug("Calling handleContentOverride for non-daily schedule");
             handleContentOverride(contentSchedule);
         } else {
-            System.out.println("DEBUG: SKIPPING handleContentOverride for daily schedule - will be managed by scheduled task");
+            log.debug("SKIPPING handleContentOverride for daily schedule - will be managed by scheduled task");
         }
         
 
@@ -199,10 +219,11 @@ public class ContentScheduleService {
         
         // Save the content schedule with cascaded time schedules
         // The cascade should handle saving the time schedules automatically
-        System.out.println("DEBUG: About to save ContentSchedule to database");
+        log.debug("About to save ContentSchedule to database");
         ContentSchedule savedSchedule = contentScheduleRepository.save(contentSchedule);
-        System.out.println("DEBUG: ContentSchedule saved successfully with ID: " + savedSchedule.getId());
+        log.debug("ContentSchedule saved successfully with ID: {}", savedSchedule.getId());
         
+        publishContentChanged(savedSchedule.getTargetTVs());
         return savedSchedule;
     }
     
@@ -215,7 +236,7 @@ public class ContentScheduleService {
     
     // Get all content schedules
     public List<ContentSchedule> getAllSchedules() {
-        return contentScheduleRepository.findAll();
+        return fetchResponseData(contentScheduleRepository.findAll());
     }
     
     // Get content schedule by ID
@@ -240,7 +261,7 @@ public class ContentScheduleService {
             }
         }
         
-        return activeSchedules;
+        return fetchResponseData(activeSchedules);
     }
     
     // Get upcoming schedules
@@ -255,12 +276,27 @@ public class ContentScheduleService {
             }
         }
         
-        return upcomingSchedules;
+        return fetchResponseData(upcomingSchedules);
     }
     
     // Get immediate/indefinite schedules
     public List<ContentSchedule> getImmediateSchedules() {
-        return contentScheduleRepository.findImmediateSchedules();
+        return fetchResponseData(contentScheduleRepository.findImmediateSchedules());
+    }
+    
+    // Load the collections read by ContentScheduleResponse (image/video URLs, target TVs, time slots)
+    // for all the given schedules: one query per collection instead of one per schedule and collection.
+    // Each collection is fetched separately, fetching the lists together would multiply the rows.
+    private List<ContentSchedule> fetchResponseData(List<ContentSchedule> schedules) {
+        if (schedules.isEmpty()) {
+            return schedules;
+        }
+        List<Long> ids = schedules.stream().map(ContentSchedule::getId).collect(Collectors.toList());
+        contentScheduleRepository.fetchImageUrls(ids);
+        contentScheduleRepository.fetchVideoUrls(ids);
+        contentScheduleRepository.fetchTargetTVs(ids);
+        contentScheduleRepository.fetchTimeSchedules(ids);
+        return schedules;
     }
     
     // Get schedules for a specific TV (prioritized by immediate vs scheduled) - TVEnum version for backward compatibility
@@ -274,7 +310,11 @@ public class ContentScheduleService {
     
     // Get schedules for a specific TV (prioritized by immediate vs scheduled) - TV entity version
     public List<ContentSchedule> getSchedulesForTV(TV tv) {
-        LocalDateTime now = LocalDateTime.now();
+        return fetchResponseData(getSchedulesForTV(tv, LocalDateTime.now()));
+    }
+    
+    // Get schedules for a specific TV as they resolve at the given time
+    private List<ContentSchedule> getSchedulesForTV(TV tv, LocalDateTime now) {
         List<ContentSchedule> result = new ArrayList<>();
         
         // First, get any scheduled content that's currently active (higher priority)
@@ -307,6 +347,46 @@ public class ContentScheduleService {
         return result;
     }
     
+    // Resolve what a TV should display right now into an immutable snapshot.
+    // The snapshot expires at the next schedule boundary for the TV, or after maxAgeSeconds at the latest.
+    @Transactional(readOnly = true)
+    public ResolvedTVContent resolveContentForTV(TV tv, long maxAgeSeconds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ContentSchedule> currentContent = getSchedulesForTV(tv, now);
+        
+        LocalDateTime expiresAt = now.plusSeconds(maxAgeSeconds);
+        
+        // Running time schedules stop matching just after their end time
+        for (TimeSchedule active : timeScheduleRepository.findCurrentlyActiveForTV(tv, now)) {
+            LocalDateTime boundary = active.getEndTime().plusNanos(1000);
+            if (boundary.isBefore(expiresAt)) {
+                expiresAt = boundary;
+            }
+        }
+        
+        // The next time schedule to start (results are ordered by start time)
+        List<TimeSchedule> upcoming = timeScheduleRepository.findUpcomingForTV(tv, now);
+        if (!upcoming.isEmpty() && upcoming.get(0).getStartTime().isBefore(expiresAt)) {
+            expiresAt = upcoming.get(0).getStartTime();
+        }
+        
+        // Daily windows opening or closing
+        for (ContentSchedule daily : contentScheduleRepository.findDailyScheduleForTV(tv)) {
+            LocalDateTime boundary = daily.getNextDailyBoundary(now);
+            if (boundary != null && boundary.isBefore(expiresAt)) {
+                expiresAt = boundary;
+            }
+        }
+        
+        ContentSchedule schedule = currentContent.isEmpty() ? null : currentContent.get(0); // Highest priority content
+        if (schedule == null) {
+            return ResolvedTVContent.of(tv.getId(), tv.getName(), null, now, expiresAt);
+        }
+        // Serve images resized for the layout they are shown in, when the variants are ready
+        List<String> imageUrls = imageVariantService.selectImageUrls(schedule.getImageUrls(), schedule.getContentType());
+        return ResolvedTVContent.of(tv.getId(), tv.getName(), schedule, imageUrls, now, expiresAt);
+    }
+    
     // Get upcoming schedules for a specific TV - TVEnum version for backward compatibility
     public List<ContentSchedule> getUpcomingSchedulesForTV(TVEnum tvEnum) {
         Optional<TV> tvOpt = convertTVEnumToEntity(tvEnum);
@@ -328,7 +408,7 @@ public class ContentScheduleService {
             }
         }
         
-        return upcomingSchedules;
+        return fetchResponseData(upcomingSchedules);
     }
     
     // Update a content schedule
@@ -338,6 +418,10 @@ public class ContentScheduleService {
             validateSchedule(updatedSchedule);
             ContentSchedule existingSchedule = existingScheduleOpt.get();
             
+            // TVs that showed this content before the update must be refreshed as well
+            Set<TV> affectedTVs = new HashSet<>(existingSchedule.getTargetTVs());
+            affectedTVs.addAll(updatedSchedule.getTargetTVs());
+            
             // Update fields
             existingSchedule.setTitle(updatedSchedule.getTitle());
             existingSchedule.setDescription(updatedSchedule.getDescription());
@@ -365,59 +449,98 @@ public class ContentScheduleService {
                 existingSchedule.setImmediate(true);
             }
             
-            return contentScheduleRepository.save(existingSchedule);
+            ContentSchedule savedSchedule = contentScheduleRepository.save(existingSchedule);
+            publishContentChanged(affectedTVs);
+            return savedSchedule;
         }
         throw new RuntimeException("Content schedule not found with id: " + id);
     }
     
     // Delete a content schedule
+    @Transactional
     public void deleteSchedule(Long id) {
+        Set<TV> affectedTVs = contentScheduleRepository.findById(id)
+                .map(schedule -> (Set<TV>) new HashSet<>(schedule.getTargetTVs()))
+                .orElse(Set.of());
+        // Time schedules that suppress this content must not reference it anymore
+        timeScheduleRepository.deleteSuppressionsOfContent(id);
         contentScheduleRepository.deleteById(id);
+        publishContentChanged(affectedTVs);
     }
     
     // Handle content override logic for new schedules
     private void handleContentOverride(ContentSchedule newSchedule) {
+        // Overlap index of the target TVs' time schedules, loaded with one query for all TVs and slots
+        Map<Long, IntervalTree<TimeSchedule>> timeScheduleIndex = buildTimeScheduleIndex(newSchedule);
+        // Overlapped time schedules are deactivated together once every TV has been handled
+        Map<Long, TimeSchedule> overlappedSchedules = new LinkedHashMap<>();
+        
         // For each target TV, handle existing content
         for (TV tv : newSchedule.getTargetTVs()) {
-            handleTVContentOverride(tv, newSchedule);
+            handleTVContentOverride(tv, newSchedule, timeScheduleIndex.get(tv.getId()), overlappedSchedules);
+        }
+        
+        if (!overlappedSchedules.isEmpty()) {
+            timeScheduleRepository.saveAll(overlappedSchedules.values());
+            log.debug("Deactivated {} overlapping time schedules", overlappedSchedules.size());
+        }
+    }
+    
+    // Per target TV, an interval tree over the active time schedules that could overlap the new schedule's slots
+    private Map<Long, IntervalTree<TimeSchedule>> buildTimeScheduleIndex(ContentSchedule newSchedule) {
+        Map<Long, IntervalTree<TimeSchedule>> index = new HashMap<>();
+        if (newSchedule.isImmediate() || newSchedule.isDailySchedule()
+                || newSchedule.getTimeSchedules().isEmpty() || newSchedule.getTargetTVs().isEmpty()) {
+            return index;
+        }
+        
+        // Nothing ending before the earliest new slot can overlap
+        LocalDateTime earliestStart = newSchedule.getTimeSchedules().stream()
+            .map(TimeSchedule::getStartTime)
+            .min(Comparator.naturalOrder())
+            .orElseThrow();
+        
+        Map<Long, List<TimeSchedule>> byTV = new HashMap<>();
+        for (Object[] row : timeScheduleRepository.findActiveForTVsEndingAfter(newSchedule.getTargetTVs(), earliestStart)) {
+            byTV.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((TimeSchedule) row[1]);
         }
+        for (Map.Entry<Long, List<TimeSchedule>> entry : byTV.entrySet()) {
+            index.put(entry.getKey(), new IntervalTree<>(entry.getValue(), TimeSchedule::getStartTime, TimeSchedule::getEndTime));
+        }
+        return index;
     }
     
     // Handle content override for a specific TV
-    private void handleTVContentOverride(TV tv, ContentSchedule newSchedule) {
-        System.out.println("DEBUG: handleTVContentOverride called for TV " + tv.getName() + " with schedule: " + newSchedule.getTitle());
-        System.out.println("DEBUG: newSchedule.isImmediate(): " + newSchedule.isImmediate());
-        System.out.println("DEBUG: newSchedule.isDailySchedule(): " + newSchedule.isDailySchedule());
+    private void handleTVContentOverride(TV tv, ContentSchedule newSchedule, IntervalTree<TimeSchedule> timeScheduleIndex,
+                                         Map<Long, TimeSchedule> overlappedSchedules) {
+        log.debug("handleTVContentOverride called for TV {} with schedule: {}", tv.getName(), newSchedule.getTitle());
+        log.debug("newSchedule.isImmediate(): {}", newSchedule.isImmediate());
+        log.debug("newSchedule.isDailySchedule(): {}", newSchedule.isDailySchedule());
         
         // Get all active immediate content for this TV
         List<ContentSchedule> existingImmediate = contentScheduleRepository.findImmediateForTV(tv);
-        System.out.println("DEBUG: Found " + existingImmediate.size() + " existing immediate content for TV " + tv.getName());
+        log.debug("Found {} existing immediate content for TV {}", existingImmediate.size(), tv.getName());
         
         for (ContentSchedule existing : existingImmediate) {
-            System.out.println("DEBUG: Checking existing content: " + existing.getTitle() + " (active: " + existing.isActive() + ")");
+            log.debug("Checking existing content: {} (active: {})", existing.getTitle(), existing.isActive());
             if (existing.isActive()) {
                 if (newSchedule.isImmediate()) {
-                    System.out.println("DEBUG: New immediate content overrides old immediate content - DISABLING " + existing.getTitle());
+                    log.debug("New immediate content overrides old immediate content - DISABLING {}", existing.getTitle());
                     // New immediate content overrides old immediate content permanently
                     existing.setActive(false);
                     contentScheduleRepository.save(existing);
                 } else if (!newSchedule.isDailySchedule()) {
-                    System.out.println("DEBUG: New time-scheduled content will override when active - storing reference for " + existing.getTitle());
+                    log.debug("New time-scheduled content will override when active - storing reference for {}", existing.getTitle());
                     // New time-scheduled content will temporarily override immediate content when it becomes active
                     // Just store the reference for later use when the schedule actually starts
                     // DO NOT deactivate the existing content immediately
                     for (TimeSchedule timeSchedule : newSchedule.getTimeSchedules()) {
-                        String existingDisabled = timeSchedule.getTemporarilyDisabledContentIds();
-                        if (existingDisabled != null && !existingDisabled.isEmpty()) {
-                            timeSchedule.setTemporarilyDisabledContentIds(existingDisabled + "," + existing.getId());
-                        } else {
-                            timeSchedule.setTemporarilyDisabledContentIds(existing.getId().toString());
-                        }
+                        timeSchedule.getSuppressedContent().add(existing);
                     }
                     // Note: We don't deactivate the existing content here anymore
                     // It will be deactivated by the scheduled task when the time schedule becomes active
                 } else {
-                    System.out.println("DEBUG: New schedule is DAILY SCHEDULE - NOT affecting existing content " + existing.getTitle());
+                    log.debug("New schedule is DAILY SCHEDULE - NOT affecting existing content {}", existing.getTitle());
                 }
                 // For daily schedules, we do NOTHING here - let the scheduled task handle it
                 // Daily schedules will be managed by the scheduled task that checks if they're currently active
@@ -425,191 +548,318 @@ public class ContentScheduleService {
         }
         
         // Handle overlapping scheduled content (only for time-based schedules, not daily schedules)
-        if (!newSchedule.isImmediate() && !newSchedule.isDailySchedule()) {
+        if (!newSchedule.isImmediate() && !newSchedule.isDailySchedule() && timeScheduleIndex != null) {
             for (TimeSchedule newTimeSchedule : newSchedule.getTimeSchedules()) {
-                // Find any existing time schedules that overlap with this new one using the repository method
-                List<TimeSchedule> overlappingSchedules = timeScheduleRepository.findOverlappingForTV(
-                    tv, newTimeSchedule.getStartTime(), newTimeSchedule.getEndTime());
+                // Find any existing time schedules that overlap with this new one
+                List<TimeSchedule> overlappingSchedules = timeScheduleIndex.findOverlapping(
+                    newTimeSchedule.getStartTime(), newTimeSchedule.getEndTime());
                 
                 for (TimeSchedule overlapping : overlappingSchedules) {
-                    // Skip if it's the same schedule (in case of updates)
-                    if (overlapping.getContentSchedule().getId().equals(newSchedule.getId())) {
+                    // Skip if it's the same schedule (in case of updates), or already disabled for another TV or slot
+                    if (overlapping.getContentSchedule().getId().equals(newSchedule.getId()) || !overlapping.isActive()) {
                         continue;
                     }
                     
-                    // Disable the overlapping time schedule
+                    // Disable the overlapping time schedule (saved with the others in handleContentOverride)
                     overlapping.setActive(false);
-                    timeScheduleRepository.save(overlapping);
+                    overlappedSchedules.put(overlapping.getId(), overlapping);
                     
                     // Store reference to restore later if needed
-                    String existingDisabled = newTimeSchedule.getTemporarilyDisabledContentIds();
-                    if (existingDisabled != null && !existingDisabled.isEmpty()) {
-                        newTimeSchedule.setTemporarilyDisabledContentIds(existingDisabled + "," + overlapping.getContentSchedule().getId());
-                    } else {
-                        newTimeSchedule.setTemporarilyDisabledContentIds(overlapping.getContentSchedule().getId().toString());
-                    }
+                    newTimeSchedule.getSuppressedContent().add(overlapping.getContentSchedule());
                 }
             }
         }
     }
     
-    // Method to handle content scheduling and restoration (called every minute)
-    @Scheduled(fixedRate = 60000) // Run every minute
+    // Full reconciliation of scheduled content state. Transitions are applied on time by the
+    // ScheduleTransitionEngine; this catches up after downtime and runs periodically as a safety net.
+    // Like applyTransitions, it only changes managed entities: the updates are flushed together
+    // as ordered JDBC batches (see hibernate.jdbc.batch_size) instead of one round-trip per row.
     public void manageScheduledContent() {
+        Timer.Sample sample = Timer.start(meterRegistry);
         LocalDateTime now = LocalDateTime.now();
-        System.out.println("=== DEBUG: manageScheduledContent() running at: " + now + " ===");
+        int changes = 0;
+        log.debug("manageScheduledContent() running at: {}", now);
         
-        // 1. Handle starting schedules - deactivate content that should be temporarily disabled
-        List<TimeSchedule> startingSchedules = timeScheduleRepository.findCurrentlyActive(now);
-        System.out.println("DEBUG: Found " + startingSchedules.size() + " currently active time schedules");
+        // 1. Handle starting schedules - deactivate content that running schedules temporarily disable
+        List<ContentSchedule> suppressedContent = contentScheduleRepository.findActiveSuppressedAt(now);
+        log.debug("Found {} active content schedules suppressed by running time schedules", suppressedContent.size());
         
-        for (TimeSchedule startingSchedule : startingSchedules) {
-            if (startingSchedule.isActive() && startingSchedule.getTemporarilyDisabledContentIds() != null && 
-                !startingSchedule.getTemporarilyDisabledContentIds().isEmpty()) {
-                
-                String[] disabledIds = startingSchedule.getTemporarilyDisabledContentIds().split(",");
-                for (String idStr : disabledIds) {
-                    try {
-                        Long disabledId = Long.parseLong(idStr.trim());
-                        Optional<ContentSchedule> contentToDisableOpt = contentScheduleRepository.findById(disabledId);
-                        if (contentToDisableOpt.isPresent()) {
-                            ContentSchedule contentToDisable = contentToDisableOpt.get();
-                            // Only disable if it's currently active and the schedule is currently running
-                            if (contentToDisable.isActive() && startingSchedule.isCurrentlyActive(now)) {
-                                System.out.println("DEBUG: Disabling content ID " + disabledId + " due to active time schedule");
-                                contentToDisable.setActive(false);
-                                contentScheduleRepository.save(contentToDisable);
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        System.err.println("Invalid content ID in temporarily disabled list: " + idStr);
-                    }
-                }
-            }
+        for (ContentSchedule contentToDisable : suppressedContent) {
+            log.debug("Disabling content ID {} due to active time schedule", contentToDisable.getId());
+            contentToDisable.setActive(false);
         }
+        changes += suppressedContent.size();
         
         // 1.5. Handle daily schedules - manage content override based on daily schedule windows
-        List<ContentSchedule> allDailySchedules = contentScheduleRepository.findAll().stream()
-            .filter(cs -> cs.isDailySchedule() && cs.isActive())
-            .collect(Collectors.toList());
+        List<ContentSchedule> allDailySchedules = contentScheduleRepository.findActiveDailySchedules();
+        log.debug("Found {} active daily schedules", allDailySchedules.size());
         
-        System.out.println("DEBUG: Found " + allDailySchedules.size() + " active daily schedules");
-        System.out.println("DEBUG: Current time for comparison: " + now.toLocalTime());
+        // Get all TVs that have daily schedules configured
+        Set<TV> allTVsWithDailySchedules = new HashSet<>();
+        for (ContentSchedule dailySchedule : allDailySchedules) {
+            allTVsWithDailySchedules.addAll(dailySchedule.getTargetTVs());
+        }
+        changes += applyDailyScheduleOverrides(allTVsWithDailySchedules, now);
         
-        // Track which TVs have active daily schedules
-        Map<TV, List<ContentSchedule>> activeDailySchedulesByTV = new HashMap<>();
+        // 2. Handle expired schedules - restore temporarily disabled content
+        List<TimeSchedule> expiredSchedules = timeScheduleRepository.findExpired(now);
+        Map<Long, Set<Long>> runningSuppressors = expiredSchedules.isEmpty() ? Map.of() : findRunningSuppressors(now);
         
-        for (ContentSchedule dailySchedule : allDailySchedules) {
-            boolean isCurrentlyInWindow = dailySchedule.isDailyScheduleActive(now);
-            System.out.println("DEBUG: Daily schedule '" + dailySchedule.getTitle() + "' (ID: " + dailySchedule.getId() + ") - currently in window: " + isCurrentlyInWindow);
-            System.out.println("DEBUG: Schedule window: " + dailySchedule.getDailyStartTime() + " - " + dailySchedule.getDailyEndTime());
-            System.out.println("DEBUG: Target TVs: " + dailySchedule.getTargetTVs().stream().map(TV::getName).collect(Collectors.toList()));
+        for (TimeSchedule expiredSchedule : expiredSchedules) {
+            // Restore any content that was temporarily disabled by this schedule
+            changes += restoreSuppressedContent(expiredSchedule, runningSuppressors, Set.of(), new HashSet<>());
             
-            if (isCurrentlyInWindow) {
-                for (TV tv : dailySchedule.getTargetTVs()) {
-                    activeDailySchedulesByTV.computeIfAbsent(tv, k -> new ArrayList<>()).add(dailySchedule);
-                    System.out.println("DEBUG: Added daily schedule '" + dailySchedule.getTitle() + "' to active list for TV " + tv.getName());
-                }
+            // Deactivate the expired time schedule
+            expiredSchedule.setActive(false);
+            changes++;
+        }
+        
+        // 3. Deactivate content schedules that only had timed content and all their time schedules are now expired
+        for (ContentSchedule contentSchedule : contentScheduleRepository.findActiveTimedSchedules()) {
+            changes += deactivateIfAllTimeSchedulesEnded(contentSchedule, now);
+        }
+        
+        // Let cached TV content know that the scheduler changed what should be displayed
+        if (changes > 0) {
+            eventPublisher.publishEvent(ContentChangedEvent.forAllTVs(ContentChangedEvent.Origin.SCHEDULER));
+        }
+        
+        // Duration of the run and number of rows it touched
+        sample.stop(meterRegistry.timer("schedule.reconcile"));
+        DistributionSummary.builder("schedule.reconcile.changes")
+            .description("Rows changed by a manageScheduledContent run")
+            .register(meterRegistry)
+            .record(changes);
+    }
+    
+    // Get every future transition (time schedule starts/ends, next daily window boundaries)
+    // for the transition engine to fire on time
+    @Transactional(readOnly = true)
+    public List<ScheduleTransition> findPendingTransitions(LocalDateTime now) {
+        List<ScheduleTransition> transitions = new ArrayList<>();
+        
+        for (TimeSchedule upcoming : timeScheduleRepository.findUpcoming(now)) {
+            transitions.add(new ScheduleTransition(upcoming.getStartTime(), ScheduleTransition.Type.TIME_SCHEDULE_START, upcoming.getId()));
+            transitions.add(new ScheduleTransition(upcoming.getEndTime(), ScheduleTransition.Type.TIME_SCHEDULE_END, upcoming.getId()));
+        }
+        
+        // Running schedules have already started, only their end is pending
+        for (TimeSchedule running : timeScheduleRepository.findCurrentlyActive(now)) {
+            transitions.add(new ScheduleTransition(running.getEndTime(), ScheduleTransition.Type.TIME_SCHEDULE_END, running.getId()));
+        }
+        
+        // Schedules that ended without being processed are due immediately
+        for (TimeSchedule expired : timeScheduleRepository.findExpired(now)) {
+            transitions.add(new ScheduleTransition(expired.getEndTime(), ScheduleTransition.Type.TIME_SCHEDULE_END, expired.getId()));
+        }
+        
+        for (ContentSchedule daily : contentScheduleRepository.findActiveDailySchedules()) {
+            LocalDateTime boundary = daily.getNextDailyBoundary(now);
+            if (boundary != null) {
+                transitions.add(new ScheduleTransition(boundary, ScheduleTransition.Type.DAILY_WINDOW_BOUNDARY, daily.getId()));
             }
         }
         
-        // Get all TVs that have daily schedules configured (active or inactive)
-        Set<TV> allTVsWithDailySchedules = new HashSet<>();
-        for (ContentSchedule dailySchedule : allDailySchedules) {
-            allTVsWithDailySchedules.addAll(dailySchedule.getTargetTVs());
+        return transitions;
+    }
+    
+    // Apply due transitions, touching only the rows they affect.
+    // Returns the transitions that follow from them (the next boundary of daily windows).
+    public List<ScheduleTransition> applyTransitions(List<ScheduleTransition> transitions, LocalDateTime now) {
+        Set<TV> affectedTVs = new HashSet<>();
+        List<ScheduleTransition> followUps = new ArrayList<>();
+        
+        // Schedules ending in this batch must not keep each other's suppressed content disabled
+        Set<Long> endingIds = transitions.stream()
+            .filter(t -> t.getType() == ScheduleTransition.Type.TIME_SCHEDULE_END)
+            .map(ScheduleTransition::getTargetId)
+            .collect(Collectors.toSet());
+        Map<Long, Set<Long>> runningSuppressors = null;
+        
+        for (ScheduleTransition transition : transitions) {
+            log.debug("Applying {}", transition);
+            switch (transition.getType()) {
+                case TIME_SCHEDULE_START -> {
+                    Optional<TimeSchedule> started = timeScheduleRepository.findById(transition.getTargetId());
+                    if (started.isPresent() && started.get().isActive() && !started.get().isExpired(now)) {
+                        affectedTVs.addAll(started.get().getContentSchedule().getTargetTVs());
+                        disableSuppressedContent(started.get(), affectedTVs);
+                    }
+                }
+                case TIME_SCHEDULE_END -> {
+                    Optional<TimeSchedule> ended = timeScheduleRepository.findById(transition.getTargetId());
+                    if (ended.isPresent() && ended.get().isActive()) {
+                        if (runningSuppressors == null) {
+                            runningSuppressors = findRunningSuppressors(now);
+                        }
+                        TimeSchedule endedSchedule = ended.get();
+                        affectedTVs.addAll(endedSchedule.getContentSchedule().getTargetTVs());
+                        restoreSuppressedContent(endedSchedule, runningSuppressors, endingIds, affectedTVs);
+                        
+                        endedSchedule.setActive(false);
+                        
+                        ContentSchedule content = endedSchedule.getContentSchedule();
+                        if (!content.isImmediate() && !content.isDailySchedule() && content.isActive()) {
+                            deactivateIfAllTimeSchedulesEnded(content, now);
+                        }
+                    }
+                }
+                case DAILY_WINDOW_BOUNDARY -> {
+                    Optional<ContentSchedule> daily = contentScheduleRepository.findById(transition.getTargetId());
+                    if (daily.isPresent() && daily.get().isActive() && daily.get().isDailySchedule()) {
+                        affectedTVs.addAll(daily.get().getTargetTVs());
+                        applyDailyScheduleOverrides(daily.get().getTargetTVs(), now);
+                        
+                        LocalDateTime nextBoundary = daily.get().getNextDailyBoundary(now);
+                        if (nextBoundary != null) {
+                            followUps.add(new ScheduleTransition(nextBoundary, ScheduleTransition.Type.DAILY_WINDOW_BOUNDARY, daily.get().getId()));
+                        }
+                    }
+                }
+            }
         }
         
-        // For each TV, manage immediate content based on daily schedule status
-        for (TV tv : allTVsWithDailySchedules) {
-            List<ContentSchedule> activeDailySchedulesForTV = activeDailySchedulesByTV.getOrDefault(tv, new ArrayList<>());
-            boolean hasActiveDailySchedule = !activeDailySchedulesForTV.isEmpty();
+        if (!affectedTVs.isEmpty()) {
+            Set<Long> tvIds = affectedTVs.stream().map(TV::getId).collect(Collectors.toSet());
+            eventPublisher.publishEvent(ContentChangedEvent.forTVs(ContentChangedEvent.Origin.SCHEDULER, tvIds));
+        }
+        return followUps;
+    }
+    
+    // For each suppressed content ID, the running time schedules suppressing it
+    private Map<Long, Set<Long>> findRunningSuppressors(LocalDateTime now) {
+        Map<Long, Set<Long>> suppressors = new HashMap<>();
+        for (Object[] row : timeScheduleRepository.findRunningSuppressions(now)) {
+            suppressors.computeIfAbsent((Long) row[1], id -> new HashSet<>()).add((Long) row[0]);
+        }
+        return suppressors;
+    }
+    
+    // Disable the content a running time schedule overrides, returns the number of rows changed
+    private int disableSuppressedContent(TimeSchedule runningSchedule, Set<TV> affectedTVs) {
+        int changes = 0;
+        for (ContentSchedule contentToDisable : runningSchedule.getSuppressedContent()) {
+            if (contentToDisable.isActive()) {
+                log.debug("Disabling content ID {} due to active time schedule", contentToDisable.getId());
+                contentToDisable.setActive(false);
+                affectedTVs.addAll(contentToDisable.getTargetTVs());
+                changes++;
+            }
+        }
+        return changes;
+    }
+    
+    // Restore the content an ended time schedule overrode, unless another running schedule
+    // (not in endingIds) still disables it. Returns the number of rows changed.
+    private int restoreSuppressedContent(TimeSchedule endedSchedule, Map<Long, Set<Long>> runningSuppressors,
+                                         Set<Long> endingIds, Set<TV> affectedTVs) {
+        int changes = 0;
+        for (ContentSchedule disabledContent : endedSchedule.getSuppressedContent()) {
+            // Only restore if no other active schedule is currently disabling this content
+            boolean shouldRestore = runningSuppressors.getOrDefault(disabledContent.getId(), Set.of()).stream()
+                .allMatch(suppressorId -> suppressorId.equals(endedSchedule.getId()) || endingIds.contains(suppressorId));
             
-            // FIXED: Look for ALL immediate content (both active and inactive) for proper restoration
-            List<ContentSchedule> allImmediateForTV = contentScheduleRepository.findAll().stream()
-                .filter(cs -> cs.isImmediate() && cs.getTargetTVs().contains(tv))
+            if (shouldRestore) {
+                disabledContent.setActive(true);
+                affectedTVs.addAll(disabledContent.getTargetTVs());
+                changes++;
+            }
+        }
+        return changes;
+    }
+    
+    // Move suppression lists stored in the legacy comma separated column into the suppression relation
+    @Transactional
+    public int migrateLegacySuppressions() {
+        List<TimeSchedule> legacySchedules = timeScheduleRepository.findWithLegacySuppressions();
+        for (TimeSchedule timeSchedule : legacySchedules) {
+            Set<Long> ids = new HashSet<>();
+            for (String idStr : timeSchedule.getTemporarilyDisabledContentIds().split(",")) {
+                try {
+                    ids.add(Long.parseLong(idStr.trim()));
+                } catch (NumberFormatException e) {
+                    log.warn("Invalid content ID in temporarily disabled list: {}", idStr);
+                }
+            }
+            // IDs of content deleted in the meantime are dropped
+            timeSchedule.getSuppressedContent().addAll(contentScheduleRepository.findAllById(ids));
+            timeSchedule.setTemporarilyDisabledContentIds(null);
+        }
+        timeScheduleRepository.saveAll(legacySchedules);
+        if (!legacySchedules.isEmpty()) {
+            log.info("Migrated suppression lists of {} time schedules", legacySchedules.size());
+        }
+        return legacySchedules.size();
+    }
+    
+    // Deactivate timed content once none of its time schedules can run anymore
+    private int deactivateIfAllTimeSchedulesEnded(ContentSchedule contentSchedule, LocalDateTime now) {
+        // Check if all time schedules for this content are expired or inactive
+        boolean hasActiveTimeSchedule = contentSchedule.getTimeSchedules().stream()
+            .anyMatch(ts -> ts.isActive() && !ts.isExpired(now));
+        
+        if (!hasActiveTimeSchedule) {
+            // No active time schedules, deactivate the content schedule
+            contentSchedule.setActive(false);
+            return 1;
+        }
+        return 0;
+    }
+    
+    // Disable immediate content on TVs that currently have a daily schedule in its window,
+    // and restore it on TVs that don't. Returns the number of rows changed.
+    private int applyDailyScheduleOverrides(Collection<TV> tvs, LocalDateTime now) {
+        if (tvs.isEmpty()) {
+            return 0;
+        }
+        // Everything is loaded up front for all TVs, so the updates below are not interleaved
+        // with queries (each query would flush them) and go out together as JDBC batches
+        Map<Long, List<ContentSchedule>> dailySchedulesByTV = groupByTV(contentScheduleRepository.findDailySchedulesForTVs(tvs));
+        // ALL immediate content (both active and inactive) for proper restoration
+        Map<Long, List<ContentSchedule>> immediateByTV = groupByTV(contentScheduleRepository.findAllImmediateForTVs(tvs));
+        
+        int changes = 0;
+        for (TV tv : tvs) {
+            List<ContentSchedule> dailySchedulesForTV = dailySchedulesByTV.getOrDefault(tv.getId(), List.of());
+            if (dailySchedulesForTV.isEmpty()) {
+                continue; // Only TVs with daily schedules are managed here
+            }
+            List<ContentSchedule> activeDailySchedulesForTV = dailySchedulesForTV.stream()
+                .filter(cs -> cs.isDailyScheduleActive(now))
                 .collect(Collectors.toList());
+            boolean hasActiveDailySchedule = !activeDailySchedulesForTV.isEmpty();
+            
+            List<ContentSchedule> allImmediateForTV = immediateByTV.getOrDefault(tv.getId(), List.of());
             
-            System.out.println("DEBUG: TV " + tv.getName() + " - hasActiveDailySchedule: " + hasActiveDailySchedule + ", found " + allImmediateForTV.size() + " immediate content (active and inactive)");
+            log.debug("TV {} - hasActiveDailySchedule: {}, found {} immediate content (active and inactive)", tv.getName(), hasActiveDailySchedule, allImmediateForTV.size());
             
             for (ContentSchedule existingContent : allImmediateForTV) {
-                System.out.println("DEBUG: Checking immediate content '" + existingContent.getTitle() + "' (ID: " + existingContent.getId() + ") - isActive: " + existingContent.isActive());
-                
                 if (hasActiveDailySchedule && existingContent.isActive()) {
                     // Daily schedule is active - temporarily disable immediate content for this TV
-                    System.out.println("DEBUG: DISABLING immediate content '" + existingContent.getTitle() + "' (ID: " + existingContent.getId() + ") for TV " + tv.getName() + " due to active daily schedule(s): " + 
-                        activeDailySchedulesForTV.stream().map(ContentSchedule::getTitle).collect(Collectors.joining(", ")));
+                    if (log.isDebugEnabled()) {
+                        log.debug("DISABLING immediate content '{}' (ID: {}) for TV {} due to active daily schedule(s): {}", existingContent.getTitle(), existingContent.getId(), tv.getName(), activeDailySchedulesForTV.stream().map(ContentSchedule::getTitle).collect(Collectors.joining(", ")));
+                    }
                     existingContent.setActive(false);
-                    contentScheduleRepository.save(existingContent);
+                    changes++;
                 } else if (!hasActiveDailySchedule && !existingContent.isActive()) {
                     // No daily schedules are active for this TV - restore immediate content
-                    System.out.println("DEBUG: RESTORING immediate content '" + existingContent.getTitle() + "' (ID: " + existingContent.getId() + ") for TV " + tv.getName() + " - no active daily schedules");
+                    log.debug("RESTORING immediate content '{}' (ID: {}) for TV {} - no active daily schedules", existingContent.getTitle(), existingContent.getId(), tv.getName());
                     existingContent.setActive(true);
-                    contentScheduleRepository.save(existingContent);
-                } else {
-                    System.out.println("DEBUG: No action needed for immediate content '" + existingContent.getTitle() + "' (ID: " + existingContent.getId() + ") for TV " + tv.getName() + 
-                        " - hasActiveDailySchedule: " + hasActiveDailySchedule + ", isActive: " + existingContent.isActive());
-                }
-            }
-        }
-        
-        // 2. Handle expired schedules - restore temporarily disabled content
-        List<TimeSchedule> expiredSchedules = timeScheduleRepository.findExpired(now);
-        
-        for (TimeSchedule expiredSchedule : expiredSchedules) {
-            // Restore any content that was temporarily disabled by this schedule
-            if (expiredSchedule.getTemporarilyDisabledContentIds() != null && 
-                !expiredSchedule.getTemporarilyDisabledContentIds().isEmpty()) {
-                
-                String[] disabledIds = expiredSchedule.getTemporarilyDisabledContentIds().split(",");
-                for (String idStr : disabledIds) {
-                    try {
-                        Long disabledId = Long.parseLong(idStr.trim());
-                        Optional<ContentSchedule> disabledContentOpt = contentScheduleRepository.findById(disabledId);
-                        if (disabledContentOpt.isPresent()) {
-                            ContentSchedule disabledContent = disabledContentOpt.get();
-                            
-                            // Only restore if no other active schedule is currently disabling this content
-                            boolean shouldRestore = true;
-                            List<TimeSchedule> currentlyActiveSchedules = timeScheduleRepository.findCurrentlyActive(now);
-                            for (TimeSchedule activeSchedule : currentlyActiveSchedules) {
-                                if (activeSchedule.getTemporarilyDisabledContentIds() != null &&
-                                    activeSchedule.getTemporarilyDisabledContentIds().contains(disabledId.toString())) {
-                                    shouldRestore = false;
-                                    break;
-                                }
-                            }
-                            
-                            if (shouldRestore) {
-                                disabledContent.setActive(true);
-                                contentScheduleRepository.save(disabledContent);
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        System.err.println("Invalid content ID in temporarily disabled list: " + idStr);
-                    }
+                    changes++;
                 }
             }
-            
-            // Deactivate the expired time schedule
-            expiredSchedule.setActive(false);
-            timeScheduleRepository.save(expiredSchedule);
         }
-        
-        // 3. Deactivate content schedules that only had timed content and all their time schedules are now expired
-        List<ContentSchedule> allContentSchedules = contentScheduleRepository.findAll();
-        for (ContentSchedule contentSchedule : allContentSchedules) {
-            if (!contentSchedule.isImmediate() && !contentSchedule.isDailySchedule() && contentSchedule.isActive()) {
-                // Check if all time schedules for this content are expired or inactive
-                boolean hasActiveTimeSchedule = contentSchedule.getTimeSchedules().stream()
-                    .anyMatch(ts -> ts.isActive() && !ts.isExpired(now));
-                
-                if (!hasActiveTimeSchedule) {
-                    // No active time schedules, deactivate the content schedule
-                    contentSchedule.setActive(false);
-                    contentScheduleRepository.save(contentSchedule);
-                }
-            }
+        return changes;
+    }
+    
+    // Group (TV id, content schedule) rows by TV id
+    private Map<Long, List<ContentSchedule>> groupByTV(List<Object[]> rows) {
+        Map<Long, List<ContentSchedule>> byTV = new HashMap<>();
+        for (Object[] row : rows) {
+            byTV.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((ContentSchedule) row[1]);
         }
+        return byTV;
     }
     
     // Validate schedule data
@@ -1,482 +1,281 @@
 package org.hyper.notificationbackend.services;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hyper.notificationbackend.concurrent.SingleFlight;
+import org.hyper.notificationbackend.sensors.SensorHtmlParser;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class DeviceService {
 
-    private static WebDriver driver;
-    private static boolean isAuthenticated = false;
-    private static long lastAuthTime = 0;
-    private static final long SESSION_TIMEOUT = 30 * 60 * 1000; // 30 minutes
-    private static final Object authLock = new Object(); // Synchronization lock
+    private static final Logger log = LoggerFactory.getLogger(DeviceService.class);
 
-    public Map<String, Object> getDeviceData() {
-        synchronized (authLock) {
-            Map<String, Object> result = new HashMap<>();
+    // One browser fetch at a time (the pool's browsers are not thread-safe). A lock rather than
+    // synchronized: a virtual thread blocked in a synchronized block pins its carrier thread
+    private static final ReentrantLock authLock = new ReentrantLock();
 
-            try {
-                // Check if we need to authenticate or re-authenticate
-                boolean needsAuth = driver == null || !isAuthenticated || 
-                                  (System.currentTimeMillis() - lastAuthTime) > SESSION_TIMEOUT;
+    private final SingleFlight<Map<String, Object>> fetchFlight = new SingleFlight<>();
 
-                if (needsAuth) {
-                    System.out.println("=== AUTHENTICATION NEEDED ===");
-                    authenticateUser();
-                } else {
-                    System.out.println("=== USING EXISTING SESSION ===");
-                }
+    @Autowired
+    private NiagaraHttpFetcher httpFetcher;
 
-                // Navigate directly to the data page (session should be maintained)
-                System.out.println("=== FETCHING LATEST DATA ===");
-                driver.get("http://10.41.15.7:8080/ord/file:%5EPx%20files/Affichage.px");
-                Thread.sleep(2000);
+    @Autowired
+    private NiagaraBrowserPool browserPool;
 
-                String currentUrl = driver.getCurrentUrl();
-                System.out.println("Current URL: " + currentUrl);
+    @Autowired
+    private MeterRegistry meterRegistry;
 
-                // Check if we were redirected to login (session expired)
-                if (currentUrl.contains("login") || currentUrl.contains("prelogin")) {
-                System.out.println("Session expired, re-authenticating...");
-                isAuthenticated = false;
-                authenticateUser();
-                
-                // Try again after re-authentication
-                driver.get("http://10.41.15.7:8080/ord/file:%5EPx%20files/Affichage.px");
-                Thread.sleep(2000);
-            }
+    @Autowired
+    private SensorHtmlParser sensorHtmlParser;
+
+    // auto: plain HTTP first, browser if that fails; http: HTTP only; selenium: browser only
+    @Value("${app.niagara.fetch-mode:auto}")
+    private String fetchMode;
+
+    @Value("${app.niagara.base-url:http://10.41.15.7:8080}")
+    private String niagaraBaseUrl;
 
-            String pxContent = driver.getPageSource();
+    @Value("${app.niagara.data-path:/ord/file:%5EPx%20files/Affichage.px}")
+    private String niagaraDataPath;
+
+    // Concurrent callers (cache misses, the scheduler, manual refreshes) join the fetch in flight
+    // instead of each scraping the controller; every caller gets its own copy of the result
+    public Map<String, Object> getDeviceData() {
+        Map<String, Object> result = fetchFlight.execute(this::fetchDeviceDataTimed,
+                () -> meterRegistry.counter("niagara.fetch.coalesced").increment());
+        return new HashMap<>(result);
+    }
+
+    private Map<String, Object> fetchDeviceDataTimed() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<String, Object> result = fetchDeviceData();
+
+        // niagara.fetch{method, outcome}: duration and success rate of each fetch
+        boolean success = Boolean.TRUE.equals(result.get("success"));
+        sample.stop(Timer.builder("niagara.fetch")
+                .description("Time to fetch sensor values from the Niagara controller")
+                .tag("method", String.valueOf(result.getOrDefault("fetch_method", "none")))
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry));
+        return result;
+    }
 
-            // Extract data from iframe
-            System.out.println("=== EXTRACTING SENSOR DATA ===");
+    private Map<String, Object> fetchDeviceData() {
+        if (!"selenium".equalsIgnoreCase(fetchMode)) {
             try {
-                // Force page refresh to get latest data
-                System.out.println("Refreshing page to get latest sensor data...");
-                driver.navigate().refresh();
-                Thread.sleep(3000);
-                
-                // Wait for iframe to be present and switch to it
-                WebDriverWait iframeWait = new WebDriverWait(driver, Duration.ofSeconds(10));
-                WebElement iframe = iframeWait.until(ExpectedConditions.presenceOfElementLocated(By.id("servletViewWidget")));
-                
-                // Switch to iframe and get its content
-                driver.switchTo().frame(iframe);
-                Thread.sleep(2000);
-                
-                String iframeContent = driver.getPageSource();
-                
-                // Parse sensor data
-                Map<String, String> sensorData = parseSensorData(iframeContent);
-                
-                // Switch back to main content
-                driver.switchTo().defaultContent();
-                
-                // Structure the response for the frontend
-                result.put("success", true);
-                result.put("timestamp", System.currentTimeMillis());
-                result.put("temperature", sensorData.getOrDefault("temperature", "N/A"));
-                result.put("temperature_unit", sensorData.getOrDefault("temperature_unit", "°C"));
-                result.put("pressure", sensorData.getOrDefault("pressure", "N/A"));
-                result.put("pressure_unit", sensorData.getOrDefault("pressure_unit", "Pa"));
-                result.put("humidity", sensorData.getOrDefault("humidity", "N/A"));
-                result.put("humidity_unit", sensorData.getOrDefault("humidity_unit", "%RH"));
-                result.put("sensor_data", sensorData);
-                result.put("current_url", currentUrl);
-                
-                System.out.println("=== DATA EXTRACTION COMPLETE ===");
-                System.out.println("Temperature: " + result.get("temperature") + " " + result.get("temperature_unit"));
-                System.out.println("Pressure: " + result.get("pressure") + " " + result.get("pressure_unit"));
-                System.out.println("Humidity: " + result.get("humidity") + " " + result.get("humidity_unit"));
-                
+                Map<String, Object> result = getDeviceDataOverHttp();
+                if (Boolean.TRUE.equals(result.get("success")) || "http".equalsIgnoreCase(fetchMode)) {
+                    return result;
+                }
+                log.warn("HTTP fetch returned no sensor values, falling back to browser");
             } catch (Exception e) {
-                System.err.println("Error extracting data from iframe: " + e.getMessage());
-                
-                // Try fallback: parse data directly from main page without iframe
-                System.out.println("Trying fallback: parsing data from main page...");
-                try {
-                    String mainPageContent = driver.getPageSource();
-                    Map<String, String> sensorData = parseSensorData(mainPageContent);
-                    
-                    if (!sensorData.isEmpty()) {
-                        result.put("success", true);
-                        result.put("timestamp", System.currentTimeMillis());
-                        result.put("temperature", sensorData.getOrDefault("temperature", "N/A"));
-                        result.put("temperature_unit", sensorData.getOrDefault("temperature_unit", "°C"));
-                        result.put("pressure", sensorData.getOrDefault("pressure", "N/A"));
-                        result.put("pressure_unit", sensorData.getOrDefault("pressure_unit", "Pa"));
-                        result.put("humidity", sensorData.getOrDefault("humidity", "N/A"));
-                        result.put("humidity_unit", sensorData.getOrDefault("humidity_unit", "%RH"));
-                        result.put("sensor_data", sensorData);
-                        result.put("current_url", currentUrl);
-                        result.put("data_source", "main_page_fallback");
-                        
-                        System.out.println("=== FALLBACK DATA EXTRACTION COMPLETE ===");
-                        System.out.println("Temperature: " + result.get("temperature") + " " + result.get("temperature_unit"));
-                        System.out.println("Pressure: " + result.get("pressure") + " " + result.get("pressure_unit"));
-                        System.out.println("Humidity: " + result.get("humidity") + " " + result.get("humidity_unit"));
-                    } else {
-                        result.put("iframe_error", e.getMessage());
-                        result.put("success", false);
-                    }
-                } catch (Exception fallbackException) {
-                    System.err.println("Fallback parsing also failed: " + fallbackException.getMessage());
-                    result.put("iframe_error", e.getMessage());
-                    result.put("fallback_error", fallbackException.getMessage());
+                log.warn("HTTP fetch failed: {}", e.getMessage());
+                if ("http".equalsIgnoreCase(fetchMode)) {
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("error", e.getMessage());
                     result.put("success", false);
+                    return result;
                 }
+                log.info("Falling back to browser fetch...");
             }
+        }
+        return getDeviceDataWithBrowser();
+    }
 
-        } catch (Exception e) {
-            System.err.println("Exception occurred: " + e.getMessage());
-            e.printStackTrace();
-            result.put("error", e.getMessage());
+    // Lightweight strategy: fetch the iframe document directly with the pooled HTTP client
+    private Map<String, Object> getDeviceDataOverHttp() throws Exception {
+        log.debug("Fetching latest data (http)");
+        NiagaraHttpFetcher.FetchedPage page = httpFetcher.fetchSensorPage();
+        Map<String, String> sensorData = parseSensorData(page.getHtml());
+
+        Map<String, Object> result = new HashMap<>();
+        if (sensorData.isEmpty() || sensorData.containsKey("parse_error")) {
             result.put("success", false);
-            
-            // Reset authentication state on error
-            isAuthenticated = false;
+            result.put("error", "No sensor values found in " + page.getUrl());
+            return result;
+        }
+        putSensorValues(result, sensorData, page.getUrl());
+        result.put("fetch_method", "http");
+        if (!page.isFromIframe()) {
+            result.put("data_source", "main_page_fallback");
         }
-
         return result;
-        } // End synchronized block
     }
 
-    private void authenticateUser() throws Exception {
-        System.out.println("=== STARTING AUTHENTICATION ===");
-        
-        // Close existing driver if it exists
-        if (driver != null) {
+    // Browser strategy, kept as a fallback for pages that need JavaScript to render.
+    // When the browser fails and the pool has a warm standby, the fetch is retried on it right away.
+    private Map<String, Object> getDeviceDataWithBrowser() {
+        authLock.lock();
+        try {
             try {
-                driver.quit();
+                NiagaraBrowserPool.BrowserSession session = browserPool.acquire();
+                try {
+                    return scrapeWithBrowser(session);
+                } catch (Exception e) {
+                    browserPool.reportBroken(session);
+                    if (!browserPool.hasStandby()) {
+                        throw e;
+                    }
+                    log.warn("Browser fetch failed ({}), retrying on the standby browser", e.getMessage());
+                } finally {
+                    browserPool.release(session);
+                }
+
+                NiagaraBrowserPool.BrowserSession standby = browserPool.acquire();
+                try {
+                    return scrapeWithBrowser(standby);
+                } catch (Exception e) {
+                    browserPool.reportBroken(standby);
+                    throw e;
+                } finally {
+                    browserPool.release(standby);
+                }
             } catch (Exception e) {
-                System.out.println("Error closing existing driver: " + e.getMessage());
+                log.error("Browser fetch failed", e);
+                Map<String, Object> result = new HashMap<>();
+                result.put("error", e.getMessage());
+                result.put("success", false);
+                return result;
             }
-            driver = null; // Set to null after quitting
+        } finally {
+            authLock.unlock();
         }
+    }
 
-        // Configure Chrome options
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--headless");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--window-size=1920,1080");
+    private Map<String, Object> scrapeWithBrowser(NiagaraBrowserPool.BrowserSession session) throws Exception {
+        WebDriver driver = session.getDriver();
+        Map<String, Object> result = new HashMap<>();
 
-        driver = new ChromeDriver(options);
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+        // Navigate directly to the data page (session should be maintained)
+        log.debug("Fetching latest data");
+        driver.get(niagaraBaseUrl + niagaraDataPath);
+        session.waitForPageReady();
 
+        String currentUrl = driver.getCurrentUrl();
+        log.debug("Current URL: {}", currentUrl);
+
+        // Redirected to login: the Niagara session expired, the pool replaces this browser
+        if (currentUrl.contains("login") || currentUrl.contains("prelogin")) {
+            throw new IllegalStateException("Browser session expired (redirected to " + currentUrl + ")");
+        }
+
+        // Extract data from iframe
+        log.debug("Extracting sensor data");
         try {
-            // Step 1: Navigate to prelogin page and inspect form
-            System.out.println("Step 1: Navigating to prelogin page");
-            driver.get("http://10.41.15.7:8080/prelogin");
-            Thread.sleep(3000);
-            
-            // Debug: Print page source to understand the form structure
-            String pageSource = driver.getPageSource();
-            System.out.println("=== PRELOGIN PAGE SOURCE (first 2000 chars) ===");
-            System.out.println(pageSource.substring(0, Math.min(2000, pageSource.length())));
-            System.out.println("=== END PAGE SOURCE ===");
+            // Force page refresh to get latest data
+            log.debug("Refreshing page to get latest sensor data");
+            driver.navigate().refresh();
+            session.waitForPageReady();
             
-            System.out.println("Step 2: Finding and filling username field");
-            WebElement usernameInput = wait.until(ExpectedConditions.presenceOfElementLocated(By.name("j_username")));
+            // Wait for iframe to be available and switch to it
+            WebDriverWait iframeWait = new WebDriverWait(driver, Duration.ofSeconds(10));
+            iframeWait.until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(By.id("servletViewWidget")));
             
-            // Debug: Check if there are any other required fields
+            // Wait until the iframe has rendered its sensor values
+            session.waitForPageReady();
             try {
-                java.util.List<WebElement> allInputs = driver.findElements(By.tagName("input"));
-                System.out.println("Found " + allInputs.size() + " input elements on prelogin page:");
-                for (WebElement input : allInputs) {
-                    String name = input.getAttribute("name");
-                    String type = input.getAttribute("type");
-                    String id = input.getAttribute("id");
-                    System.out.println("  - Input: name='" + name + "', type='" + type + "', id='" + id + "'");
-                }
-            } catch (Exception e) {
-                System.err.println("Could not inspect form inputs: " + e.getMessage());
+                iframeWait.until(d -> d.getPageSource().contains("title="));
+            } catch (TimeoutException e) {
+                log.warn("Sensor values not rendered within timeout, parsing what is there");
             }
             
-            // Use JavaScript to clear and set the value to avoid stale element issues
-            ((JavascriptExecutor) driver).executeScript("arguments[0].value = '';", usernameInput);
-            String niagaraUsername = System.getenv("NIAGARA_USERNAME");
-            if (niagaraUsername == null || niagaraUsername.isEmpty()) {
-                niagaraUsername = System.getProperty("NIAGARA_USERNAME");
-            }
-            if (niagaraUsername == null || niagaraUsername.isEmpty()) {
-                throw new Exception("NIAGARA_USERNAME environment variable is not set. Please set it in your .env file.");
-            }
-            ((JavascriptExecutor) driver).executeScript("arguments[0].value = arguments[1];", usernameInput, niagaraUsername);
-            System.out.println("Username '" + niagaraUsername + "' entered successfully using JavaScript");
+            String iframeContent = driver.getPageSource();
             
-            System.out.println("Step 3: Clicking submit button for username");
-            WebElement submitButton = driver.findElement(By.id("login-submit"));
-            submitButton.click();
+            // Parse sensor data
+            Map<String, String> sensorData = parseSensorData(iframeContent);
             
-            // Wait for page to navigate after username submission
-            Thread.sleep(5000);
+            // Switch back to main content
+            driver.switchTo().defaultContent();
             
-            String currentUrl = driver.getCurrentUrl();
-            System.out.println("After username submission, current URL: " + currentUrl);
-            
-            // If we get auth=fail immediately, let's try different approaches
-            if (currentUrl.contains("auth=fail")) {
-                System.err.println("===== IMMEDIATE AUTH FAILURE DETECTED =====");
-                System.err.println("The username is being rejected immediately.");
-                System.err.println("Let's try accessing the direct login page instead...");
-                
-                // Try accessing the main login page directly
-                driver.get("http://10.41.15.7:8080/login");
-                Thread.sleep(3000);
-                
-                String loginPageSource = driver.getPageSource();
-                System.out.println("=== LOGIN PAGE SOURCE (first 2000 chars) ===");
-                System.out.println(loginPageSource.substring(0, Math.min(2000, loginPageSource.length())));
-                System.out.println("=== END LOGIN PAGE SOURCE ===");
-                
-                // Try to find both username and password fields on the same page
-                try {
-                    WebElement directUsernameInput = driver.findElement(By.name("j_username"));
-                    WebElement directPasswordInput = driver.findElement(By.name("j_password"));
-                    
-                    System.out.println("Found both username and password fields on login page - trying direct login");
-                    
-                    directUsernameInput.clear();
-                    directUsernameInput.sendKeys(niagaraUsername);
-                    
-                    directPasswordInput.clear();
-                    String niagaraPassword = System.getenv("NIAGARA_PASSWORD");
-                    if (niagaraPassword == null || niagaraPassword.isEmpty()) {
-                        niagaraPassword = System.getProperty("NIAGARA_PASSWORD");
-                    }
-                    if (niagaraPassword == null || niagaraPassword.isEmpty()) {
-                        throw new Exception("NIAGARA_PASSWORD environment variable is not set. Please set it in your .env file.");
-                    }
-                    directPasswordInput.sendKeys(niagaraPassword);
-                    
-                    WebElement directLoginButton = driver.findElement(By.id("login-submit"));
-                    directLoginButton.click();
-                    
-                    Thread.sleep(5000);
-                    String directLoginUrl = driver.getCurrentUrl();
-                    System.out.println("After direct login attempt, URL: " + directLoginUrl);
-                    
-                    if (!directLoginUrl.contains("auth=fail") && !directLoginUrl.contains("login")) {
-                        System.out.println("Direct login appears successful! Continuing...");
-                        // Update the current URL for the rest of the method
-                        currentUrl = directLoginUrl;
-                    } else {
-                        throw new Exception("Both prelogin and direct login failed - credentials may be incorrect");
-                    }
-                    
-                } catch (Exception directLoginEx) {
-                    System.err.println("Direct login also failed: " + directLoginEx.getMessage());
-                    throw new Exception("Authentication failed: both prelogin flow and direct login failed");
-                }
-            }
-
-            // Step 4: Handle password entry on the new page (re-find all elements to avoid stale references)
-            System.out.println("Step 4: Looking for password field on current page");
-            
-            // Wait for password field to be available on the current page
-            WebElement passwordInput = wait.until(ExpectedConditions.presenceOfElementLocated(By.name("j_password")));
-            System.out.println("Found password field");
-            
-            // Clear and enter password
-            passwordInput.clear();
-            Thread.sleep(500);
-            String niagaraPassword = System.getenv("NIAGARA_PASSWORD");
-            if (niagaraPassword == null || niagaraPassword.isEmpty()) {
-                niagaraPassword = System.getProperty("NIAGARA_PASSWORD");
-            }
-            if (niagaraPassword == null || niagaraPassword.isEmpty()) {
-                throw new Exception("NIAGARA_PASSWORD environment variable is not set. Please set it in your .env file.");
-            }
-            passwordInput.sendKeys(niagaraPassword);
-            System.out.println("Password entered successfully");
-            
-            // Step 5: Submit login form (re-find button to avoid stale reference)
-            System.out.println("Step 5: Finding login button for password submission");
-            Thread.sleep(1000);
-            
-            // Find and click the login button for password submission
-            WebElement loginButton = wait.until(ExpectedConditions.elementToBeClickable(By.id("login-submit")));
-            loginButton.click();
-            System.out.println("Login button clicked for password submission");
-            
-            // Wait for authentication to complete
-            Thread.sleep(8000);
-            
-            String finalUrl = driver.getCurrentUrl();
-            System.out.println("Authentication completed, final URL: " + finalUrl);
-            
-            // Check authentication results
-            if (finalUrl.contains("auth=fail")) {
-                System.err.println("Authentication explicitly failed - auth=fail in URL");
-                throw new Exception("Authentication failed: incorrect credentials");
-            }
-            
-            if (finalUrl.contains("login") || finalUrl.contains("prelogin")) {
-                System.err.println("Authentication failed - still on login page: " + finalUrl);
-                throw new Exception("Authentication failed: redirected back to login page");
-            }
-            
-            // Test navigation to verify authentication works
-            System.out.println("Step 6: Testing access to protected content");
-            driver.get("http://10.41.15.7:8080/ord/file:%5EPx%20files/Affichage.px");
-            Thread.sleep(3000);
-            
-            String testUrl = driver.getCurrentUrl();
-            System.out.println("Test navigation URL: " + testUrl);
-            
-            if (testUrl.contains("login") || testUrl.contains("prelogin")) {
-                System.err.println("Authentication verification failed - redirected to login when accessing protected content");
-                throw new Exception("Authentication verification failed");
-            }
-            
-            // Mark as authenticated
-            isAuthenticated = true;
-            lastAuthTime = System.currentTimeMillis();
-            
-            System.out.println("=== AUTHENTICATION SUCCESSFUL ===");
+            // Structure the response for the frontend
+            putSensorValues(result, sensorData, currentUrl);
+            result.put("fetch_method", "selenium");
             
         } catch (Exception e) {
-            System.err.println("Authentication failed: " + e.getMessage());
-            e.printStackTrace();
-            isAuthenticated = false;
+            log.warn("Error extracting data from iframe: {}", e.getMessage());
             
-            // Clean up on failure
-            if (driver != null) {
-                try {
-                    driver.quit();
-                } catch (Exception quitException) {
-                    System.err.println("Error quitting driver: " + quitException.getMessage());
+            // Try fallback: parse data directly from main page without iframe
+            log.info("Trying fallback: parsing data from main page");
+            try {
+                driver.switchTo().defaultContent();
+                String mainPageContent = driver.getPageSource();
+                Map<String, String> sensorData = parseSensorData(mainPageContent);
+                
+                if (!sensorData.isEmpty()) {
+                    putSensorValues(result, sensorData, currentUrl);
+                    result.put("fetch_method", "selenium");
+                    result.put("data_source", "main_page_fallback");
+                } else {
+                    result.put("iframe_error", e.getMessage());
+                    result.put("success", false);
                 }
-                driver = null; // Set to null after quitting
+            } catch (Exception fallbackException) {
+                log.warn("Fallback parsing also failed: {}", fallbackException.getMessage());
+                result.put("iframe_error", e.getMessage());
+                result.put("fallback_error", fallbackException.getMessage());
+                result.put("success", false);
             }
-            throw new Exception("Authentication failed: " + e.getMessage(), e);
         }
+
+        return result;
     }
 
-    private Map<String, String> parseSensorData(String htmlContent) {
-        Map<String, String> sensorData = new HashMap<>();
+    // Fill the response fields the frontend expects from parsed sensor values
+    private void putSensorValues(Map<String, Object> result, Map<String, String> sensorData, String currentUrl) {
+        result.put("success", true);
+        result.put("timestamp", System.currentTimeMillis());
+        result.put("temperature", sensorData.getOrDefault("temperature", "N/A"));
+        result.put("temperature_unit", sensorData.getOrDefault("temperature_unit", "°C"));
+        result.put("pressure", sensorData.getOrDefault("pressure", "N/A"));
+        result.put("pressure_unit", sensorData.getOrDefault("pressure_unit", "Pa"));
+        result.put("humidity", sensorData.getOrDefault("humidity", "N/A"));
+        result.put("humidity_unit", sensorData.getOrDefault("humidity_unit", "%RH"));
+        result.put("sensor_data", sensorData);
+        result.put("current_url", currentUrl);
         
-        try {
-            System.out.println("=== PARSING SENSOR DATA ===");
-            
-            // Look for title attributes which contain the precise sensor readings
-            // Pattern: title="T° moyenne CTA 1 = = 28.7 °C {ok} @ def"
-            java.util.regex.Pattern titlePattern = java.util.regex.Pattern.compile(
-                "title=\"[^\"]*=\\s*=?\\s*([\\d\\.-]+)\\s*([^\\s{}]+)[^\"]*\"", 
-                java.util.regex.Pattern.CASE_INSENSITIVE
-            );
-            java.util.regex.Matcher titleMatcher = titlePattern.matcher(htmlContent);
-            
-            while (titleMatcher.find()) {
-                String value = titleMatcher.group(1);
-                String unit = titleMatcher.group(2);
-                String fullTitle = titleMatcher.group(0);
-                
-                System.out.println("Found title: " + fullTitle);
-                System.out.println("Extracted - Value: " + value + ", Unit: " + unit);
-                
-                // Determine if this is interior (CTA/moyenne) or exterior (extérieure) data
-                boolean isInteriorData = fullTitle.contains("CTA") || fullTitle.contains("moyenne") || 
-                                       (!fullTitle.contains("extérieure") && !fullTitle.contains("extΘrieure"));
-                boolean isExteriorData = fullTitle.contains("extérieure") || fullTitle.contains("extΘrieure");
-                
-                if (unit.contains("C") || unit.contains("°")) {
-                    // Prioritize interior temperature over exterior
-                    if (isInteriorData || !sensorData.containsKey("temperature")) {
-                        sensorData.put("temperature", value);
-                        sensorData.put("temperature_unit", "°C");
-                        String location = isInteriorData ? " (Interior)" : (isExteriorData ? " (Exterior)" : "");
-                        System.out.println("✓ Temperature" + location + ": " + value + "°C");
-                    }
-                } else if (unit.equals("Pa")) {
-                    if (!sensorData.containsKey("pressure")) {
-                        sensorData.put("pressure", value);
-                        sensorData.put("pressure_unit", "Pa");
-                        System.out.println("✓ Pressure: " + value + " Pa");
-                    }
-                } else if (unit.contains("%") || unit.contains("RH")) {
-                    // Prioritize interior humidity over exterior
-                    if (isInteriorData || !sensorData.containsKey("humidity")) {
-                        sensorData.put("humidity", value);
-                        sensorData.put("humidity_unit", "%RH");
-                        String location = isInteriorData ? " (Interior)" : (isExteriorData ? " (Exterior)" : "");
-                        System.out.println("✓ Humidity" + location + ": " + value + "%RH");
-                    }
-                }
-            }
+        log.debug("Data extraction complete: temperature={} {}, pressure={} {}, humidity={} {}",
+                result.get("temperature"), result.get("temperature_unit"),
+                result.get("pressure"), result.get("pressure_unit"),
+                result.get("humidity"), result.get("humidity_unit"));
+    }
 
-            // Fallback: Parse from display text if title attributes didn't work
-            if (sensorData.size() < 3) {
-                System.out.println("Using fallback parsing from display text...");
-                
-                // Temperature pattern
-                java.util.regex.Pattern tempPattern = java.util.regex.Pattern.compile("([\\d\\.-]+)\\s*[░°]C");
-                java.util.regex.Matcher tempMatcher = tempPattern.matcher(htmlContent);
-                if (tempMatcher.find() && !sensorData.containsKey("temperature")) {
-                    sensorData.put("temperature", tempMatcher.group(1));
-                    sensorData.put("temperature_unit", "°C");
-                    System.out.println("✓ Temperature (fallback): " + tempMatcher.group(1) + "°C");
-                }
-                
-                // Pressure pattern
-                java.util.regex.Pattern pressurePattern = java.util.regex.Pattern.compile("([\\d\\.-]+)\\s*Pa");
-                java.util.regex.Matcher pressureMatcher = pressurePattern.matcher(htmlContent);
-                if (pressureMatcher.find() && !sensorData.containsKey("pressure")) {
-                    sensorData.put("pressure", pressureMatcher.group(1));
-                    sensorData.put("pressure_unit", "Pa");
-                    System.out.println("✓ Pressure (fallback): " + pressureMatcher.group(1) + " Pa");
-                }
-                
-                // Humidity pattern
-                java.util.regex.Pattern humidityPattern = java.util.regex.Pattern.compile("([\\d\\.-]+)\\s*%RH");
-                java.util.regex.Matcher humidityMatcher = humidityPattern.matcher(htmlContent);
-                if (humidityMatcher.find() && !sensorData.containsKey("humidity")) {
-                    sensorData.put("humidity", humidityMatcher.group(1));
-                    sensorData.put("humidity_unit", "%RH");
-                    System.out.println("✓ Humidity (fallback): " + humidityMatcher.group(1) + "%RH");
-                }
-            }
-            
+    Map<String, String> parseSensorData(String htmlContent) {
+        try {
+            log.debug("Parsing sensor data");
+            return sensorHtmlParser.parse(htmlContent);
         } catch (Exception e) {
-            System.err.println("Error parsing sensor data: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error parsing sensor data", e);
+            Map<String, String> sensorData = new HashMap<>();
             sensorData.put("parse_error", e.getMessage());
+            return sensorData;
         }
-        
-        return sensorData;
     }
 
     // Optional: Add a method to force re-authentication
     public Map<String, Object> forceReauth() {
-        isAuthenticated = false;
+        browserPool.retireActive();
+        httpFetcher.resetSession();
         return getDeviceData();
     }
 
     // Optional: Add a method to close the browser session
     public void closeBrowserSession() {
-        if (driver != null) {
-            try {
-                driver.quit();
-                driver = null;
-                isAuthenticated = false;
-                System.out.println("Browser session closed");
-            } catch (Exception e) {
-                System.err.println("Error closing browser session: " + e.getMessage());
-            }
-        }
+        browserPool.closeAll();
+        log.info("Browser sessions closed");
     }
 }
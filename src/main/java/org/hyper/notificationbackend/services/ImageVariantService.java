@@ -0,0 +1,569 @@
+package org.hyper.notificationbackend.services;
+
+import jakarta.annotation.PreDestroy;
+import org.hyper.notificationbackend.events.ContentChangedEvent;
+import org.hyper.notificationbackend.models.ContentSchedule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates resized JPEG variants of uploaded images for each TV layout (full screen,
+ * half screen, quarter screen) in the background, and picks the variant that fits a
+ * layout when TV content is resolved. Until a variant exists the original is served.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    public static final String VARIANT_DIR = "variants";
+
+    // Formats ImageIO can decode that are worth re-encoding (GIFs may be animated and are left alone)
+    private static final Set<String> SOURCE_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".bmp", ".tif", ".tiff");
+
+    // Part of every variant name: bump it when a change to the decoding/encoding here alters the output,
+    // so existing images get new URLs instead of screens keeping the old (immutably cached) files
+    private static final String ENCODER_REVISION = "r2";
+
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+
+    // Larger chunks before the image data are not worth reading for an orientation tag
+    private static final int MAX_PNG_CHUNK = 1 << 20;
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.media.variants.enabled:true}")
+    private boolean enabled;
+
+    // TV screen resolution the layouts are derived from
+    @Value("${app.media.variants.screen-width:1920}")
+    private int screenWidth;
+
+    @Value("${app.media.variants.screen-height:1080}")
+    private int screenHeight;
+
+    @Value("${app.media.variants.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    // Image decoding is memory and CPU heavy: one image at a time
+    private final ExecutorService variantExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "image-variants");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Files queued or being processed, so repeated uploads don't queue duplicate work
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // Tile each layout shows an image in
+    public enum Layout {
+        SINGLE(1, 1),   // IMAGE_SINGLE: full screen
+        DUAL(2, 1),     // IMAGE_DUAL: two side by side
+        QUAD(2, 2);     // IMAGE_QUAD: 2x2 grid
+
+        private final int columns;
+        private final int rows;
+
+        Layout(int columns, int rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        public static Layout forContentType(ContentSchedule.ContentType contentType) {
+            if (contentType == null) {
+                return SINGLE;
+            }
+            return switch (contentType) {
+                case IMAGE_DUAL -> DUAL;
+                case IMAGE_QUAD -> QUAD;
+                default -> SINGLE;
+            };
+        }
+
+        String suffix() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Queue variant generation for an uploaded file (ignored for non-images)
+    public void generateVariantsAsync(String filename) {
+        if (!enabled || !isSourceImage(filename) || !pending.add(filename)) {
+            return;
+        }
+        variantExecutor.execute(() -> {
+            try {
+                if (generateVariants(filename)) {
+                    // Let cached TV content switch to the new variants
+                    eventPublisher.publishEvent(ContentChangedEvent.forAllTVs(ContentChangedEvent.Origin.MEDIA));
+                }
+            } catch (Exception e) {
+                log.warn("Error generating image variants for {}: {}", filename, e.getMessage());
+            } finally {
+                pending.remove(filename);
+            }
+        });
+    }
+
+    // Create variants for images uploaded before the pipeline existed (or while it was down)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillVariants() {
+        if (!enabled || !Files.isDirectory(mediaStorageService.getUploadPath())) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(mediaStorageService.getUploadPath())) {
+            for (Path file : files) {
+                String filename = file.getFileName().toString();
+                if (Files.isRegularFile(file) && isSourceImage(filename) && !hasAllVariants(filename)) {
+                    generateVariantsAsync(filename);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Error scanning uploads for image variants: {}", e.getMessage());
+        }
+    }
+
+    // URLs to show for a layout: the variant of each uploaded image if it exists, else the original
+    public List<String> selectImageUrls(List<String> imageUrls, ContentSchedule.ContentType contentType) {
+        if (!enabled || imageUrls == null || imageUrls.isEmpty()) {
+            return imageUrls;
+        }
+        Layout layout = Layout.forContentType(contentType);
+        List<String> selected = new ArrayList<>(imageUrls.size());
+        for (String url : imageUrls) {
+            selected.add(variantUrl(url, layout));
+        }
+        return selected;
+    }
+
+    // Remove the variants of a deleted upload (whatever settings they were made with)
+    public void deleteVariants(String filename) {
+        deleteVariantsExcept(filename, Set.of());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        variantExecutor.shutdownNow();
+    }
+
+    private String variantUrl(String url, Layout layout) {
+        if (url == null) {
+            return null;
+        }
+        int uploadsIndex = url.indexOf("/uploads/");
+        int lastSlash = url.lastIndexOf('/');
+        if (uploadsIndex < 0 || lastSlash != uploadsIndex + "/uploads".length()) {
+            return url; // External URL or already a variant
+        }
+        String filename = url.substring(lastSlash + 1);
+        if (!isSourceImage(filename)) {
+            return url;
+        }
+        try {
+            if (Files.isRegularFile(variantPath(filename, layout))) {
+                return url.substring(0, lastSlash + 1) + VARIANT_DIR + "/" + variantName(filename, layout);
+            }
+        } catch (IllegalArgumentException e) {
+            // Not a valid stored filename
+        }
+        return url;
+    }
+
+    // Returns true if at least one variant was written
+    private boolean generateVariants(String filename) throws IOException {
+        Path source = mediaStorageService.resolve(filename);
+        if (!Files.isRegularFile(source)) {
+            return false;
+        }
+        Files.createDirectories(mediaStorageService.getUploadPath().resolve(VARIANT_DIR));
+
+        int largestWidth = screenWidth;
+        int largestHeight = screenHeight;
+        BufferedImage image = readSubsampled(source, largestWidth, largestHeight);
+        if (image == null) {
+            return false;
+        }
+
+        boolean written = false;
+        Set<String> current = new HashSet<>();
+        for (Layout layout : Layout.values()) {
+            current.add(variantName(filename, layout));
+            Path target = variantPath(filename, layout);
+            if (Files.exists(target)) {
+                continue;
+            }
+            writeJpeg(resizeToFit(image, boxWidth(layout), boxHeight(layout)), target);
+            written = true;
+        }
+        // Variants made with other settings are no longer served
+        deleteVariantsExcept(filename, current);
+        log.info("Image variants ready for {}", filename);
+        return written;
+    }
+
+    private void deleteVariantsExcept(String filename, Set<String> keep) {
+        Path variantDir = mediaStorageService.getUploadPath().resolve(VARIANT_DIR);
+        if (!Files.isDirectory(variantDir)) {
+            return;
+        }
+        String base = baseName(filename);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(variantDir,
+                file -> isVariantOf(file.getFileName().toString(), base))) {
+            for (Path file : files) {
+                if (!keep.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Error deleting image variants of {}: {}", filename, e.getMessage());
+        }
+    }
+
+    // <base>-<layout>.jpg (before the settings were part of the name) or <base>-<layout>-<settings>.jpg
+    private static boolean isVariantOf(String name, String base) {
+        if (!name.endsWith(".jpg")) {
+            return false;
+        }
+        for (Layout layout : Layout.values()) {
+            String prefix = base + "-" + layout.suffix();
+            if (name.equals(prefix + ".jpg") || name.startsWith(prefix + "-")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int boxWidth(Layout layout) {
+        return screenWidth / layout.columns;
+    }
+
+    private int boxHeight(Layout layout) {
+        return screenHeight / layout.rows;
+    }
+
+    // Decode the image upright, skipping pixels while reading so huge photos don't need full-size buffers.
+    // Returns null when the image can't be decoded or its EXIF orientation can't be read.
+    private BufferedImage readSubsampled(Path source, int targetWidth, int targetHeight) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                // Only TIFF needs the metadata for the orientation
+                reader.setInput(input, true, !reader.getFormatName().toLowerCase(Locale.ROOT).startsWith("tif"));
+                // Browsers show the original rotated as its EXIF tag says, the variants (written without
+                // metadata) must have that rotation applied to their pixels
+                int orientation = readOrientation(source, reader);
+                if (orientation < 1 || orientation > 8) {
+                    log.info("Unknown EXIF orientation for {}, serving the original", source.getFileName());
+                    return null;
+                }
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (orientation >= 5) {
+                    // Stored sideways: the stored width becomes the displayed height
+                    int swap = targetWidth;
+                    targetWidth = targetHeight;
+                    targetHeight = swap;
+                }
+
+                // Keep at least twice the target size for a good quality downscale
+                int subsampling = Math.max(1, Math.min(width / (targetWidth * 2), height / (targetHeight * 2)));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return applyOrientation(reader.read(0, param), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // EXIF orientation (1 = upright, as stored) from the image metadata, 1 if there is none, -1 if unreadable
+    private static int readOrientation(Path source, ImageReader reader) throws IOException {
+        String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+        if (format.equals("jpeg") || format.equals("jpg")) {
+            return jpegOrientation(source);
+        }
+        if (format.startsWith("tif")) {
+            IIOMetadata metadata = reader.getImageMetadata(0);
+            if (metadata == null) {
+                return -1;
+            }
+            Node root = metadata.getAsTree(metadata.getNativeMetadataFormatName());
+            for (Node field : findNodes(root, "TIFFField")) {
+                Node number = field.getAttributes().getNamedItem("number");
+                if (number != null && "274".equals(number.getNodeValue())) {
+                    List<Node> values = findNodes(field, "TIFFShort");
+                    Node value = values.isEmpty() ? null : values.get(0).getAttributes().getNamedItem("value");
+                    return value != null ? parseOrientation(value.getNodeValue()) : -1;
+                }
+            }
+            return 1;
+        }
+        if (format.equals("png")) {
+            return pngOrientation(source);
+        }
+        return 1; // BMP has no orientation
+    }
+
+    // Read the Exif APP1 segment directly: the JPEG metadata ImageIO builds rejects files it can still decode
+    private static int jpegOrientation(Path source) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return -1;
+            }
+            while (true) {
+                if (in.readUnsignedByte() != 0xFF) {
+                    return -1;
+                }
+                int marker = in.readUnsignedByte();
+                while (marker == 0xFF) { // Fill bytes
+                    marker = in.readUnsignedByte();
+                }
+                if (marker == 0xDA || marker == 0xD9) { // Start of scan, end of image: no Exif
+                    return 1;
+                }
+                if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) { // No length
+                    continue;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return -1;
+                }
+                if (marker == 0xE1) {
+                    byte[] data = in.readNBytes(length);
+                    if (startsWith(data, EXIF_HEADER)) {
+                        return tiffOrientation(data, EXIF_HEADER.length);
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (EOFException e) {
+            return -1;
+        }
+    }
+
+    // The PNG reader doesn't expose the eXIf chunk: walk the chunks before the image data
+    private static int pngOrientation(Path source) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            in.skipNBytes(8); // Signature
+            while (true) {
+                int length = in.readInt();
+                String type = new String(in.readNBytes(4), StandardCharsets.US_ASCII);
+                if (type.equals("IDAT") || type.equals("IEND")) {
+                    return 1;
+                }
+                if (length < 0 || length > MAX_PNG_CHUNK) {
+                    return -1;
+                }
+                if (type.equals("eXIf")) {
+                    return tiffOrientation(in.readNBytes(length), 0);
+                }
+                in.skipNBytes(length + 4L); // Data and CRC
+            }
+        } catch (EOFException e) {
+            return -1;
+        }
+    }
+
+    // Orientation tag (0x0112) of the first IFD of a TIFF structure (the EXIF payload), 1 if absent, -1 if unreadable
+    private static int tiffOrientation(byte[] data, int start) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            if (data[start] == 'I' && data[start + 1] == 'I') {
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+            } else if (data[start] != 'M' || data[start + 1] != 'M') {
+                return -1;
+            }
+            int ifd = start + buffer.getInt(start + 4);
+            int entries = buffer.getShort(ifd) & 0xFFFF;
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + i * 12;
+                if ((buffer.getShort(entry) & 0xFFFF) == 0x0112) {
+                    // SHORT (type 3) value stored inline
+                    return (buffer.getShort(entry + 2) & 0xFFFF) == 3 ? buffer.getShort(entry + 8) & 0xFFFF : -1;
+                }
+            }
+            return 1;
+        } catch (IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    private static int parseOrientation(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static List<Node> findNodes(Node node, String name) {
+        List<Node> found = new ArrayList<>();
+        if (name.equals(node.getNodeName())) {
+            found.add(node);
+        }
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            found.addAll(findNodes(child, name));
+        }
+        return found;
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        return data.length >= prefix.length && Arrays.equals(data, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    // Rotate/flip the stored pixels to how the EXIF orientation says they are displayed
+    private static BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        if (orientation == 1) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        // Maps stored (x, y) to displayed (x', y'): new AffineTransform(m00, m10, m01, m11, m02, m12)
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);   // Mirrored horizontally
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height); // Rotated 180°
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);  // Mirrored vertically
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);        // Transposed
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);  // Rotated 90° clockwise
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width); // Transversed
+            default -> new AffineTransform(0, -1, 1, 0, 0, width);  // 8: rotated 90° counter-clockwise
+        };
+        boolean sideways = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(sideways ? height : width, sideways ? width : height,
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    // Scale down (never up) to fit the box, flattening transparency onto black like the TV background
+    private BufferedImage resizeToFit(BufferedImage image, int boxWidth, int boxHeight) {
+        double scale = Math.min(1.0, Math.min((double) boxWidth / image.getWidth(), (double) boxHeight / image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setColor(Color.BLACK);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    // Write to a temp file first so a half-written variant is never served
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path temp = target.resolveSibling("." + target.getFileName() + ".part");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private boolean hasAllVariants(String filename) {
+        for (Layout layout : Layout.values()) {
+            if (!Files.exists(variantPath(filename, layout))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Path variantPath(String filename, Layout layout) {
+        return mediaStorageService.resolve(VARIANT_DIR + "/" + variantName(filename, layout));
+    }
+
+    // <name without extension>-<layout>-<box size>-q<quality>-<encoder revision>.jpg, e.g.
+    // 9f86d0...-quad-960x540-q82-r2.jpg: other settings give other (immutable) URLs
+    private String variantName(String filename, Layout layout) {
+        return baseName(filename) + "-" + layout.suffix() + "-" + boxWidth(layout) + "x" + boxHeight(layout)
+                + "-q" + Math.round(jpegQuality * 100) + "-" + ENCODER_REVISION + ".jpg";
+    }
+
+    private static String baseName(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+
+    private static boolean isSourceImage(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 && !filename.contains("/") && SOURCE_EXTENSIONS.contains(filename.substring(dot).toLowerCase(Locale.ROOT));
+    }
+}
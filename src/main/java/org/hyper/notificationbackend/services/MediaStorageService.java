@@ -0,0 +1,203 @@
+package org.hyper.notificationbackend.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hyper.notificationbackend.repositories.ContentScheduleRepository;
+import org.hyper.notificationbackend.repositories.TVProfileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Content-addressed storage for uploaded media. Files are streamed once to disk while
+ * their SHA-256 is computed, then stored as {@code <sha256>.<ext>}; uploading the same
+ * file again reuses the existing copy instead of writing a duplicate.
+ */
+@Service
+public class MediaStorageService {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Autowired
+    private ContentScheduleRepository contentScheduleRepository;
+
+    @Autowired
+    private TVProfileRepository tvProfileRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Result of storing a file
+    public static class StoredMedia {
+        private final String filename;
+        private final String sha256;
+        private final long size;
+        private final boolean deduplicated;
+
+        StoredMedia(String filename, String sha256, long size, boolean deduplicated) {
+            this.filename = filename;
+            this.sha256 = sha256;
+            this.size = size;
+            this.deduplicated = deduplicated;
+        }
+
+        public String getFilename() { return filename; }
+
+        public String getSha256() { return sha256; }
+
+        public long getSize() { return size; }
+
+        // True if an identical file was already stored and no new copy was written
+        public boolean isDeduplicated() { return deduplicated; }
+    }
+
+    // Stream the input to disk, hashing on the way, and move it to its content address.
+    // Throws IllegalArgumentException if more than maxBytes are received.
+    public StoredMedia store(InputStream input, String originalFilename, long maxBytes) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        StoredMedia stored = writeContentAddressed(input, originalFilename, maxBytes);
+
+        // Upload throughput = rate(media.upload.size sum) / rate(media.upload sum)
+        String deduplicated = String.valueOf(stored.isDeduplicated());
+        sample.stop(meterRegistry.timer("media.upload", "deduplicated", deduplicated));
+        DistributionSummary.builder("media.upload.size")
+                .description("Size of stored uploads")
+                .baseUnit("bytes")
+                .tag("deduplicated", deduplicated)
+                .register(meterRegistry)
+                .record(stored.getSize());
+        return stored;
+    }
+
+    private StoredMedia writeContentAddressed(InputStream input, String originalFilename, long maxBytes) throws IOException {
+        Path uploadPath = getUploadPath();
+        Path tempDir = uploadPath.resolve(".incoming");
+        Files.createDirectories(tempDir);
+
+        MessageDigest digest = newSha256();
+        Path tempFile = Files.createTempFile(tempDir, "upload-", ".part");
+        long size = 0;
+        try {
+            try (ReadableByteChannel source = Channels.newChannel(input);
+                 FileChannel target = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException("File size exceeds " + (maxBytes / (1024 * 1024)) + "MB limit");
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+
+            if (size == 0) {
+                throw new IllegalArgumentException("No file provided");
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String filename = sha256 + extensionOf(originalFilename);
+            Path finalPath = uploadPath.resolve(filename);
+
+            if (Files.exists(finalPath)) {
+                Files.deleteIfExists(tempFile);
+                return new StoredMedia(filename, sha256, size, true);
+            }
+
+            try {
+                Files.move(tempFile, finalPath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, finalPath);
+            } catch (FileAlreadyExistsException e) {
+                // The same content was stored concurrently
+                Files.deleteIfExists(tempFile);
+                return new StoredMedia(filename, sha256, size, true);
+            }
+            return new StoredMedia(filename, sha256, size, false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    // Delete a stored file unless a schedule or profile slide still points at it.
+    // Returns false if the file is still referenced and was kept.
+    public boolean deleteIfUnreferenced(String filename) throws IOException {
+        Path filePath = resolve(filename);
+        if (isReferenced(filename)) {
+            return false;
+        }
+        return Files.deleteIfExists(filePath);
+    }
+
+    public boolean exists(String filename) {
+        return Files.isRegularFile(resolve(filename));
+    }
+
+    // Resolve a stored filename, rejecting anything outside the upload directory
+    public Path resolve(String filename) {
+        Path uploadPath = getUploadPath();
+        Path filePath = uploadPath.resolve(filename).normalize();
+        if (!filePath.startsWith(uploadPath) || filePath.equals(uploadPath)) {
+            throw new IllegalArgumentException("Invalid filename: " + filename);
+        }
+        return filePath;
+    }
+
+    public Path getUploadPath() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    // Content-addressed files may be shared by several schedules after deduplication
+    private boolean isReferenced(String filename) {
+        return contentScheduleRepository.countMediaReferences(filename) > 0
+                || tvProfileRepository.countSlideMediaReferences(filename) > 0;
+    }
+
+    // Keep a short, safe extension so the file is served with the right type
+    private static String extensionOf(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        if (extension.isEmpty() || extension.length() > 10 || !extension.matches("[a-z0-9]+")) {
+            return "";
+        }
+        return "." + extension;
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is always available on the JVM
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,599 @@
+package org.hyper.notificationbackend.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Authenticated headless browsers for DeviceService's browser strategy. Keeps the session in use
+ * plus a warm, already logged-in standby: when the active browser breaks, the standby takes over
+ * immediately and a replacement is built in the background, off the request path. The standby is
+ * health-checked (and its Niagara session kept alive) periodically.
+ *
+ * Nothing is started until the browser strategy is first used (it is only a fallback in auto mode),
+ * and the browsers are closed again when it goes unused for app.niagara.browser.idle-timeout-ms.
+ */
+@Service
+public class NiagaraBrowserPool {
+
+    private static final Logger log = LoggerFactory.getLogger(NiagaraBrowserPool.class);
+
+    private static final Duration PAGE_READY_TIMEOUT = Duration.ofSeconds(15);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Builds replacement browsers in the background
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${app.niagara.base-url:http://10.41.15.7:8080}")
+    private String niagaraBaseUrl;
+
+    @Value("${app.niagara.data-path:/ord/file:%5EPx%20files/Affichage.px}")
+    private String niagaraDataPath;
+
+    // Keep a logged-in spare browser ready for failover
+    @Value("${app.niagara.browser.warm-standby:true}")
+    private boolean warmStandby;
+
+    // Sessions older than this are replaced (log in again) before use
+    @Value("${app.niagara.browser.session-timeout-ms:1800000}")
+    private long sessionTimeoutMs;
+
+    // Close the browsers once no fetch used them for this long (e.g. the HTTP strategy recovered), 0 = never
+    @Value("${app.niagara.browser.idle-timeout-ms:900000}")
+    private long idleTimeoutMs;
+
+    // Guards active and standby; never held while a browser is being created or used
+    private final ReentrantLock lock = new ReentrantLock();
+    private BrowserSession active;
+    private BrowserSession standby;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Set once the browser strategy has been used, so the HTTP-only setups never start Chrome
+    private volatile boolean inUse;
+    private volatile long lastAcquiredAt;
+
+    /**
+     * A logged-in browser. WebDriver is not thread-safe: a session is used by one caller at a time
+     * (DeviceService holds its lock while fetching, the health check takes the standby out of the pool).
+     * A session retired while leased to DeviceService is only quit when it is released.
+     */
+    public static final class BrowserSession {
+        private final WebDriver driver;
+        private final long authenticatedAt;
+        // Both guarded by the pool lock
+        private boolean leased;
+        private boolean retired;
+
+        private BrowserSession(WebDriver driver) {
+            this.driver = driver;
+            this.authenticatedAt = System.currentTimeMillis();
+        }
+
+        public WebDriver getDriver() {
+            return driver;
+        }
+
+        private boolean isExpired(long timeoutMs) {
+            return System.currentTimeMillis() - authenticatedAt > timeoutMs;
+        }
+
+        // Wait until the browser has finished loading the current document (instead of fixed sleeps)
+        public void waitForPageReady() {
+            NiagaraBrowserPool.waitForPageReady(driver);
+        }
+
+        private void quit() {
+            try {
+                driver.quit();
+            } catch (Exception e) {
+                log.warn("Error closing browser: {}", e.getMessage());
+            }
+        }
+    }
+
+    // The browser to fetch with: the active one, else the warm standby (instant failover),
+    // else a new one started on the caller's thread (cold start). Hand it back with release().
+    public BrowserSession acquire() throws Exception {
+        lastAcquiredAt = System.currentTimeMillis();
+        inUse = true;
+        lock.lock();
+        try {
+            if (active != null && active.isExpired(sessionTimeoutMs)) {
+                log.info("Browser session older than {} ms, replacing it", sessionTimeoutMs);
+                retire(active);
+                active = null;
+            }
+            if (active == null && standby != null) {
+                log.info("Switching to the warm standby browser");
+                meterRegistry.counter("niagara.browser.failovers").increment();
+                active = standby;
+                standby = null;
+            }
+            if (active != null) {
+                ensureStandby();
+                active.leased = true;
+                return active;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        log.info("No browser ready, starting one");
+        BrowserSession created = createSession();
+        lock.lock();
+        try {
+            if (active == null) {
+                active = created;
+            } else {
+                retire(created);
+            }
+            ensureStandby();
+            active.leased = true;
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Done fetching with an acquired session; quit it now if it was retired meanwhile
+    public void release(BrowserSession session) {
+        lock.lock();
+        try {
+            if (session.leased) {
+                session.leased = false;
+                if (session.retired) {
+                    quitLater(session);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The session failed (error, logged out, crashed): drop it, the standby takes over on the next acquire
+    public void reportBroken(BrowserSession session) {
+        lock.lock();
+        try {
+            // The caller is done with it
+            session.leased = false;
+            if (active == session) {
+                active = null;
+            }
+            retire(session);
+            ensureStandby();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Log in again on the next fetch (the standby, already logged in, takes over);
+    // a fetch in progress finishes on the retired browser first
+    public void retireActive() {
+        lock.lock();
+        try {
+            if (active != null) {
+                retire(active);
+                active = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Close every browser (a fetch in progress keeps its browser until it is done);
+    // nothing is started again until the next browser fetch
+    public void closeAll() {
+        lock.lock();
+        try {
+            inUse = false;
+            if (active != null) {
+                retire(active);
+                active = null;
+            }
+            if (standby != null) {
+                retire(standby);
+                standby = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Application shutdown: quit everything now, fetches in progress included
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            inUse = false;
+            if (active != null) {
+                active.quit();
+                active = null;
+            }
+            if (standby != null) {
+                standby.quit();
+                standby = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean hasStandby() {
+        lock.lock();
+        try {
+            return standby != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Check the standby in the background: replace it when it expired or lost its Niagara session,
+    // otherwise the page load keeps the session alive. Close everything once the browsers sit idle.
+    @Scheduled(fixedDelayString = "${app.niagara.browser.health-check-ms:60000}",
+               initialDelayString = "${app.niagara.browser.health-check-ms:60000}")
+    public void checkStandby() {
+        if (!inUse) {
+            return;
+        }
+        if (idleTimeoutMs > 0 && System.currentTimeMillis() - lastAcquiredAt > idleTimeoutMs) {
+            log.info("No browser fetch for {} ms, closing the browsers", idleTimeoutMs);
+            closeAll();
+            return;
+        }
+        if (!warmStandby) {
+            return;
+        }
+
+        BrowserSession candidate;
+        lock.lock();
+        try {
+            // Out of the pool while it is being checked, so acquire() can't hand it out concurrently
+            candidate = standby;
+            standby = null;
+        } finally {
+            lock.unlock();
+        }
+
+        if (candidate != null && !candidate.isExpired(sessionTimeoutMs) && isHealthy(candidate)) {
+            lock.lock();
+            try {
+                if (standby == null && inUse) {
+                    standby = candidate;
+                    candidate = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+        } else if (candidate != null) {
+            log.info("Standby browser failed its health check, rebuilding it");
+            meterRegistry.counter("niagara.browser.health_check_failures").increment();
+        }
+
+        lock.lock();
+        try {
+            if (candidate != null) {
+                retire(candidate);
+            }
+            ensureStandby();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isHealthy(BrowserSession session) {
+        try {
+            session.driver.get(niagaraBaseUrl + niagaraDataPath);
+            session.waitForPageReady();
+            String url = session.driver.getCurrentUrl();
+            return !(url.contains("login") || url.contains("prelogin"));
+        } catch (Exception e) {
+            log.debug("Standby browser health check failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // Start building a standby in the background if one is missing. Call with the lock held.
+    private void ensureStandby() {
+        if (!warmStandby || !inUse || standby != null || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(this::buildStandby);
+        } catch (RuntimeException e) {
+            rebuilding.set(false);
+            log.warn("Could not schedule standby browser build: {}", e.getMessage());
+        }
+    }
+
+    private void buildStandby() {
+        try {
+            BrowserSession created = createSession();
+            lock.lock();
+            try {
+                if (standby == null && inUse) {
+                    standby = created;
+                    log.info("Warm standby browser ready");
+                } else {
+                    retire(created);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (Exception e) {
+            log.warn("Could not build standby browser: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    // Take a browser out of service: quit it now, or on release if a fetch is using it. Call with the lock held.
+    private void retire(BrowserSession session) {
+        session.retired = true;
+        if (!session.leased) {
+            quitLater(session);
+        }
+    }
+
+    // Quit a browser without blocking the caller (quitting Chrome can take a few seconds)
+    private void quitLater(BrowserSession session) {
+        try {
+            taskExecutor.execute(session::quit);
+        } catch (RuntimeException e) {
+            session.quit();
+        }
+    }
+
+    private BrowserSession createSession() throws Exception {
+        log.info("Starting Niagara browser authentication");
+        meterRegistry.counter("niagara.logins", "method", "selenium").increment();
+
+        // Configure Chrome options
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless");
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--disable-gpu");
+        options.addArguments("--window-size=1920,1080");
+
+        WebDriver driver = new ChromeDriver(options);
+        try {
+            login(driver);
+        } catch (Exception e) {
+            // Clean up on failure
+            try {
+                driver.quit();
+            } catch (Exception quitException) {
+                log.warn("Error quitting driver: {}", quitException.getMessage());
+            }
+            throw e;
+        }
+        return new BrowserSession(driver);
+    }
+
+    // Walk the Niagara prelogin/login pages in a fresh browser
+    private void login(WebDriver driver) throws Exception {
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+
+        try {
+            // Step 1: Navigate to prelogin page and inspect form
+            log.debug("Step 1: Navigating to prelogin page");
+            driver.get(niagaraBaseUrl + "/prelogin");
+            waitForPageReady(driver);
+            
+            // Debug: Print page source to understand the form structure
+            if (log.isTraceEnabled()) {
+                String pageSource = driver.getPageSource();
+                log.trace("Prelogin page source (first 2000 chars):\n{}", pageSource.substring(0, Math.min(2000, pageSource.length())));
+            }
+            
+            log.debug("Step 2: Finding and filling username field");
+            WebElement usernameInput = wait.until(ExpectedConditions.presenceOfElementLocated(By.name("j_username")));
+            
+            // Debug: Check if there are any other required fields (costs a browser round trip per input)
+            if (log.isDebugEnabled()) {
+                try {
+                    java.util.List<WebElement> allInputs = driver.findElements(By.tagName("input"));
+                    log.debug("Found {} input elements on prelogin page:", allInputs.size());
+                    for (WebElement input : allInputs) {
+                        String name = input.getAttribute("name");
+                        String type = input.getAttribute("type");
+                        String id = input.getAttribute("id");
+                        log.debug("  - Input: name='{}', type='{}', id='{}'", name, type, id);
+                    }
+                } catch (Exception e) {
+                    log.warn("Could not inspect form inputs: {}", e.getMessage());
+                }
+            }
+            
+            // Use JavaScript to clear and set the value to avoid stale element issues
+            ((JavascriptExecutor) driver).executeScript("arguments[0].value = '';", usernameInput);
+            String niagaraUsername = System.getenv("NIAGARA_USERNAME");
+            if (niagaraUsername == null || niagaraUsername.isEmpty()) {
+                niagaraUsername = System.getProperty("NIAGARA_USERNAME");
+            }
+            if (niagaraUsername == null || niagaraUsername.isEmpty()) {
+                throw new Exception("NIAGARA_USERNAME environment variable is not set. Please set it in your .env file.");
+            }
+            ((JavascriptExecutor) driver).executeScript("arguments[0].value = arguments[1];", usernameInput, niagaraUsername);
+            log.debug("Username '{}' entered successfully using JavaScript", niagaraUsername);
+            
+            log.debug("Step 3: Clicking submit button for username");
+            String preloginUrl = driver.getCurrentUrl();
+            WebElement submitButton = driver.findElement(By.id("login-submit"));
+            submitButton.click();
+            
+            // Wait for the password step (or a failure redirect) after username submission
+            try {
+                wait.until(ExpectedConditions.or(
+                        ExpectedConditions.urlContains("auth=fail"),
+                        ExpectedConditions.not(ExpectedConditions.urlToBe(preloginUrl)),
+                        ExpectedConditions.presenceOfElementLocated(By.name("j_password"))));
+            } catch (TimeoutException e) {
+                log.debug("No navigation after username submission, continuing on current page");
+            }
+            waitForPageReady(driver);
+            
+            String currentUrl = driver.getCurrentUrl();
+            log.debug("After username submission, current URL: {}", currentUrl);
+            
+            // If we get auth=fail immediately, let's try different approaches
+            if (currentUrl.contains("auth=fail")) {
+                log.warn("Username rejected immediately by prelogin, trying the direct login page instead");
+                
+                // Try accessing the main login page directly
+                driver.get(niagaraBaseUrl + "/login");
+                waitForPageReady(driver);
+                
+                if (log.isTraceEnabled()) {
+                    String loginPageSource = driver.getPageSource();
+                    log.trace("Login page source (first 2000 chars):\n{}", loginPageSource.substring(0, Math.min(2000, loginPageSource.length())));
+                }
+                
+                // Try to find both username and password fields on the same page
+                try {
+                    WebElement directUsernameInput = driver.findElement(By.name("j_username"));
+                    WebElement directPasswordInput = driver.findElement(By.name("j_password"));
+                    
+                    log.debug("Found both username and password fields on login page - trying direct login");
+                    
+                    directUsernameInput.clear();
+                    directUsernameInput.sendKeys(niagaraUsername);
+                    
+                    directPasswordInput.clear();
+                    String niagaraPassword = System.getenv("NIAGARA_PASSWORD");
+                    if (niagaraPassword == null || niagaraPassword.isEmpty()) {
+                        niagaraPassword = System.getProperty("NIAGARA_PASSWORD");
+                    }
+                    if (niagaraPassword == null || niagaraPassword.isEmpty()) {
+                        throw new Exception("NIAGARA_PASSWORD environment variable is not set. Please set it in your .env file.");
+                    }
+                    directPasswordInput.sendKeys(niagaraPassword);
+                    
+                    String loginUrl = driver.getCurrentUrl();
+                    WebElement directLoginButton = driver.findElement(By.id("login-submit"));
+                    directLoginButton.click();
+                    
+                    waitForNavigationFrom(driver, loginUrl);
+                    String directLoginUrl = driver.getCurrentUrl();
+                    log.debug("After direct login attempt, URL: {}", directLoginUrl);
+                    
+                    if (!directLoginUrl.contains("auth=fail") && !directLoginUrl.contains("login")) {
+                        log.info("Direct login appears successful! Continuing...");
+                        // Update the current URL for the rest of the method
+                        currentUrl = directLoginUrl;
+                    } else {
+                        throw new Exception("Both prelogin and direct login failed - credentials may be incorrect");
+                    }
+                    
+                } catch (Exception directLoginEx) {
+                    log.warn("Direct login also failed: {}", directLoginEx.getMessage());
+                    throw new Exception("Authentication failed: both prelogin flow and direct login failed");
+                }
+            }
+
+            // Step 4: Handle password entry on the new page (re-find all elements to avoid stale references)
+            log.debug("Step 4: Looking for password field on current page");
+            
+            // Wait for password field to be available on the current page
+            WebElement passwordInput = wait.until(ExpectedConditions.presenceOfElementLocated(By.name("j_password")));
+            log.debug("Found password field");
+            
+            // Clear and enter password
+            passwordInput.clear();
+            String niagaraPassword = System.getenv("NIAGARA_PASSWORD");
+            if (niagaraPassword == null || niagaraPassword.isEmpty()) {
+                niagaraPassword = System.getProperty("NIAGARA_PASSWORD");
+            }
+            if (niagaraPassword == null || niagaraPassword.isEmpty()) {
+                throw new Exception("NIAGARA_PASSWORD environment variable is not set. Please set it in your .env file.");
+            }
+            passwordInput.sendKeys(niagaraPassword);
+            log.debug("Password entered successfully");
+            
+            // Step 5: Submit login form (re-find button to avoid stale reference)
+            log.debug("Step 5: Finding login button for password submission");
+            
+            // Find and click the login button for password submission
+            String passwordPageUrl = driver.getCurrentUrl();
+            WebElement loginButton = wait.until(ExpectedConditions.elementToBeClickable(By.id("login-submit")));
+            loginButton.click();
+            log.debug("Login button clicked for password submission");
+            
+            // Wait for authentication to complete
+            waitForNavigationFrom(driver, passwordPageUrl);
+            
+            String finalUrl = driver.getCurrentUrl();
+            log.debug("Authentication completed, final URL: {}", finalUrl);
+            
+            // Check authentication results
+            if (finalUrl.contains("auth=fail")) {
+                log.warn("Authentication explicitly failed - auth=fail in URL");
+                throw new Exception("Authentication failed: incorrect credentials");
+            }
+            
+            if (finalUrl.contains("login") || finalUrl.contains("prelogin")) {
+                log.warn("Authentication failed - still on login page: {}", finalUrl);
+                throw new Exception("Authentication failed: redirected back to login page");
+            }
+            
+            // Test navigation to verify authentication works
+            log.debug("Step 6: Testing access to protected content");
+            driver.get(niagaraBaseUrl + niagaraDataPath);
+            waitForPageReady(driver);
+            
+            String testUrl = driver.getCurrentUrl();
+            log.debug("Test navigation URL: {}", testUrl);
+            
+            if (testUrl.contains("login") || testUrl.contains("prelogin")) {
+                log.warn("Authentication verification failed - redirected to login when accessing protected content");
+                throw new Exception("Authentication verification failed");
+            }
+            
+            log.info("Niagara browser authentication successful");
+            
+        } catch (Exception e) {
+            log.error("Authentication failed: {}", e.getMessage(), e);
+            throw new Exception("Authentication failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Wait until the browser has finished loading the current document (instead of fixed sleeps)
+    private static void waitForPageReady(WebDriver driver) {
+        new WebDriverWait(driver, PAGE_READY_TIMEOUT).until(d ->
+                "complete".equals(((JavascriptExecutor) d).executeScript("return document.readyState")));
+    }
+
+    // Wait until the URL leaves the given page, returns false on timeout
+    private static boolean waitForNavigationFrom(WebDriver driver, String previousUrl) {
+        try {
+            new WebDriverWait(driver, PAGE_READY_TIMEOUT).until(d -> !d.getCurrentUrl().equals(previousUrl));
+            waitForPageReady(driver);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+}
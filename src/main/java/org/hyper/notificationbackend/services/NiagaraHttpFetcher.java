@@ -0,0 +1,207 @@
+package org.hyper.notificationbackend.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches the Niagara sensor page over plain HTTP: logs in through the prelogin/login
+ * forms once, keeps the session cookie, and downloads the servletViewWidget iframe
+ * document directly. No browser is involved, so a fetch takes one or two requests.
+ */
+@Service
+public class NiagaraHttpFetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NiagaraHttpFetcher.class);
+
+    // Login form steps to follow before giving up (prelogin -> password -> done)
+    private static final int MAX_LOGIN_STEPS = 3;
+
+    @Value("${app.niagara.base-url:http://10.41.15.7:8080}")
+    private String baseUrl;
+
+    @Value("${app.niagara.data-path:/ord/file:%5EPx%20files/Affichage.px}")
+    private String dataPath;
+
+    @Value("${app.niagara.http.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${NIAGARA_USERNAME:}")
+    private String username;
+
+    @Value("${NIAGARA_PASSWORD:}")
+    private String password;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private HttpClient httpClient;
+    private CookieManager cookieManager;
+    private final ReentrantLock loginLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        cookieManager = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        // The client keeps connections to the controller alive between fetches
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .cookieHandler(cookieManager)
+                .build();
+    }
+
+    // Result of a fetch: the document holding the sensor values and where it came from
+    public static class FetchedPage {
+        private final String html;
+        private final String url;
+        private final boolean fromIframe;
+
+        FetchedPage(String html, String url, boolean fromIframe) {
+            this.html = html;
+            this.url = url;
+            this.fromIframe = fromIframe;
+        }
+
+        public String getHtml() { return html; }
+
+        public String getUrl() { return url; }
+
+        public boolean isFromIframe() { return fromIframe; }
+    }
+
+    // Get the sensor document, logging in first if there is no valid session
+    public FetchedPage fetchSensorPage() throws IOException, InterruptedException {
+        HttpResponse<String> page = get(URI.create(baseUrl + dataPath));
+        if (isLoginPage(page)) {
+            log.info("Niagara HTTP session missing or expired, logging in...");
+            login();
+            page = get(URI.create(baseUrl + dataPath));
+            if (isLoginPage(page)) {
+                throw new IOException("Still redirected to login after authentication: " + page.uri());
+            }
+        }
+        if (page.statusCode() != 200) {
+            throw new IOException("Unexpected status " + page.statusCode() + " for " + page.uri());
+        }
+
+        // The values are rendered inside the servletViewWidget iframe
+        Document document = Jsoup.parse(page.body(), page.uri().toString());
+        Element iframe = document.getElementById("servletViewWidget");
+        if (iframe == null || iframe.absUrl("src").isEmpty()) {
+            // Fall back to the main page, like the browser strategy does
+            return new FetchedPage(page.body(), page.uri().toString(), false);
+        }
+
+        HttpResponse<String> frame = get(URI.create(iframe.absUrl("src")));
+        if (frame.statusCode() != 200 || isLoginPage(frame)) {
+            throw new IOException("Could not load sensor iframe (status " + frame.statusCode() + "): " + frame.uri());
+        }
+        return new FetchedPage(frame.body(), page.uri().toString(), true);
+    }
+
+    // Forget the session so the next fetch logs in again
+    public void resetSession() {
+        cookieManager.getCookieStore().removeAll();
+    }
+
+    // Walk the prelogin/login forms, filling in the credentials on each step
+    private void login() throws IOException, InterruptedException {
+        loginLock.lock();
+        try {
+            if (username == null || username.isEmpty()) {
+                throw new IOException("NIAGARA_USERNAME environment variable is not set. Please set it in your .env file.");
+            }
+            if (password == null || password.isEmpty()) {
+                throw new IOException("NIAGARA_PASSWORD environment variable is not set. Please set it in your .env file.");
+            }
+
+            resetSession();
+            meterRegistry.counter("niagara.logins", "method", "http").increment();
+            HttpResponse<String> page = get(URI.create(baseUrl + "/prelogin"));
+            for (int step = 0; step < MAX_LOGIN_STEPS; step++) {
+                Element form = findLoginForm(page);
+                if (form == null) {
+                    break;
+                }
+                page = submit(form);
+                if (page.uri().toString().contains("auth=fail")) {
+                    throw new IOException("Authentication failed: incorrect credentials");
+                }
+            }
+            log.info("Niagara HTTP login completed, landed on: {}", page.uri());
+        } finally {
+            loginLock.unlock();
+        }
+    }
+
+    private Element findLoginForm(HttpResponse<String> page) {
+        Document document = Jsoup.parse(page.body(), page.uri().toString());
+        return document.selectFirst("form:has(input[name=j_username]), form:has(input[name=j_password])");
+    }
+
+    // Submit a login form with its hidden fields and our credentials
+    private HttpResponse<String> submit(Element form) throws IOException, InterruptedException {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (Element input : form.select("input[name]")) {
+            fields.put(input.attr("name"), input.val());
+        }
+        if (fields.containsKey("j_username")) {
+            fields.put("j_username", username);
+        }
+        if (fields.containsKey("j_password")) {
+            fields.put("j_password", password);
+        }
+
+        String action = form.absUrl("action");
+        if (action.isEmpty()) {
+            action = form.ownerDocument().location();
+        }
+        String body = fields.entrySet().stream()
+                .map(e -> URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(action))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private HttpResponse<String> get(URI uri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    // Niagara redirects unauthenticated requests to its login pages
+    private boolean isLoginPage(HttpResponse<String> page) {
+        String path = page.uri().getPath();
+        return path != null && (path.contains("login") || path.contains("prelogin"));
+    }
+}
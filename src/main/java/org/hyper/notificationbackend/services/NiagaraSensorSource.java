@@ -0,0 +1,80 @@
+package org.hyper.notificationbackend.services;
+
+import org.hyper.notificationbackend.sensors.SensorReading;
+import org.hyper.notificationbackend.sensors.SensorSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Niagara controller scraped by DeviceService, exposed as a sensor source.
+ * Also keeps the legacy /api/device-data cache up to date.
+ */
+@Service
+public class NiagaraSensorSource implements SensorSource {
+
+    public static final String SOURCE_ID = "niagara";
+
+    private static final String[] METRICS = {"temperature", "pressure", "humidity"};
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private SensorDataCacheService cacheService;
+
+    @Override
+    public String getSourceId() {
+        return SOURCE_ID;
+    }
+
+    @Override
+    public List<SensorReading> readSensors() {
+        Map<String, Object> freshData = deviceService.getDeviceData();
+        if (freshData == null || !Boolean.TRUE.equals(freshData.get("success"))) {
+            Object error = freshData != null ? freshData.get("error") : null;
+            throw new IllegalStateException("No valid data received" + (error != null ? ": " + error : ""));
+        }
+
+        cacheService.updateSensorData(freshData);
+        return toReadings(freshData);
+    }
+
+    // Convert the scraped response map to typed readings, skipping missing values ("N/A").
+    // Metrics beyond the standard three (extra app.niagara.sensor-points) come from the parsed sensor_data.
+    public static List<SensorReading> toReadings(Map<String, Object> deviceData) {
+        Object timestampValue = deviceData.get("timestamp");
+        long timestamp = timestampValue instanceof Number ? ((Number) timestampValue).longValue() : System.currentTimeMillis();
+
+        List<SensorReading> readings = new ArrayList<>(METRICS.length);
+        for (String metric : METRICS) {
+            addReading(readings, metric, deviceData.get(metric), deviceData.get(metric + "_unit"), timestamp);
+        }
+        if (deviceData.get("sensor_data") instanceof Map<?, ?> sensorData) {
+            for (Map.Entry<?, ?> entry : sensorData.entrySet()) {
+                String metric = entry.getKey().toString();
+                if (metric.endsWith("_unit") || metric.equals("parse_error") || Arrays.asList(METRICS).contains(metric)) {
+                    continue;
+                }
+                addReading(readings, metric, entry.getValue(), sensorData.get(metric + "_unit"), timestamp);
+            }
+        }
+        return readings;
+    }
+
+    private static void addReading(List<SensorReading> readings, String metric, Object value, Object unit, long timestamp) {
+        if (value == null) {
+            return;
+        }
+        try {
+            double parsed = Double.parseDouble(value.toString().trim());
+            readings.add(new SensorReading(SOURCE_ID, metric, parsed, unit != null ? unit.toString() : null, timestamp));
+        } catch (NumberFormatException e) {
+            // Value not available in this fetch
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.hyper.notificationbackend.services;
+
+import org.hyper.notificationbackend.models.ArchivedContentSchedule;
+import org.hyper.notificationbackend.models.ContentSchedule;
+import org.hyper.notificationbackend.repositories.ArchivedContentScheduleRepository;
+import org.hyper.notificationbackend.repositories.ContentScheduleRepository;
+import org.hyper.notificationbackend.repositories.TimeScheduleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class ScheduleArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleArchiveService.class);
+
+    @Autowired
+    private ContentScheduleRepository contentScheduleRepository;
+
+    @Autowired
+    private TimeScheduleRepository timeScheduleRepository;
+
+    @Autowired
+    private ArchivedContentScheduleRepository archivedContentScheduleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Content whose last time schedule ended more than this many days ago leaves the live tables
+    @Value("${app.archive.retention-days:30}")
+    private int retentionDays;
+
+    // Schedules moved per transaction
+    @Value("${app.archive.batch-size:200}")
+    private int batchSize;
+
+    // Moves expired content into the archive tables (default once an hour)
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}",
+               initialDelayString = "${app.archive.initial-delay-ms:300000}")
+    public void scheduledArchive() {
+        try {
+            archiveExpired();
+        } catch (Exception e) {
+            log.error("Archiving expired schedules failed", e);
+        }
+    }
+
+    // Archive everything past the retention window, one batch per transaction. Returns the number archived.
+    public int archiveExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(retentionDays);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        int total = 0;
+        while (true) {
+            Integer archived = transaction.execute(status -> archiveBatch(cutoff, now));
+            if (archived == null || archived == 0) {
+                break;
+            }
+            total += archived;
+            if (archived < batchSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Archived {} content schedules that ended before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff, LocalDateTime now) {
+        // Archived rows disappear from the query, so the first page is always the next batch
+        List<Long> ids = contentScheduleRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<ContentSchedule> schedules = contentScheduleRepository.findAllById(ids);
+        for (ContentSchedule schedule : schedules) {
+            archivedContentScheduleRepository.save(ArchivedContentSchedule.of(schedule, now));
+            timeScheduleRepository.deleteSuppressionsOfContent(schedule.getId());
+        }
+        // Time schedules (and the suppressions they own) go with their content through the cascade
+        contentScheduleRepository.deleteAll(schedules);
+        return schedules.size();
+    }
+
+    public Page<ArchivedContentSchedule> search(String tvName, LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        return archivedContentScheduleRepository.search(tvName, from, to, pageable);
+    }
+
+    public Optional<ArchivedContentSchedule> getArchivedSchedule(Long id) {
+        return archivedContentScheduleRepository.findById(id);
+    }
+}
@@ -0,0 +1,161 @@
+package org.hyper.notificationbackend.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hyper.notificationbackend.events.ContentChangedEvent;
+import org.hyper.notificationbackend.scheduling.ScheduleTransition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fires schedule transitions (time schedule start/end, daily window boundaries) at the
+ * instant they are due instead of scanning every schedule each minute. The queue is
+ * rebuilt from the database at startup and whenever an admin changes schedules.
+ */
+@Service
+public class ScheduleTransitionEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleTransitionEngine.class);
+
+    // Delay before retrying transitions that failed to apply
+    private static final long RETRY_DELAY_SECONDS = 30;
+
+    @Autowired
+    private ContentScheduleService contentScheduleService;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Guards the queue and the timer. A lock rather than synchronized: reloading and applying
+    // transitions run queries, which would pin a virtual thread's carrier inside a synchronized block
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Pending transitions, earliest first. Guarded by lock.
+    private final PriorityQueue<ScheduleTransition> queue = new PriorityQueue<>();
+
+    // Queue size for the gauge, so metric scrapes never wait for a reload
+    private volatile int pendingCount;
+
+    // Timer for the head of the queue
+    private ScheduledFuture<?> nextRun;
+    private LocalDateTime nextRunAt;
+
+    // Catch up on anything missed while the application was down, then start the timers
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            contentScheduleService.migrateLegacySuppressions();
+            contentScheduleService.manageScheduledContent();
+        } catch (Exception e) {
+            log.warn("Error reconciling scheduled content at startup: {}", e.getMessage());
+        }
+        reload();
+    }
+
+    // Admin changes to schedules can add, move or remove transitions: rebuild the queue after commit.
+    // Changes made by the scheduler itself are already reflected in the queue, and TV changes
+    // (renames, toggles) don't touch the schedules transitions are derived from.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getOrigin() == ContentChangedEvent.Origin.ADMIN && event.isSchedulesChanged()) {
+            reload();
+        }
+    }
+
+    // Rebuild the queue from the database
+    public void reload() {
+        lock.lock();
+        try {
+            try {
+                List<ScheduleTransition> pending = contentScheduleService.findPendingTransitions(LocalDateTime.now());
+                queue.clear();
+                queue.addAll(pending);
+                log.info("Schedule transition engine loaded {} pending transitions", pending.size());
+            } catch (Exception e) {
+                log.warn("Error loading schedule transitions: {}", e.getMessage());
+            }
+            scheduleNextRun();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    // Apply every transition that is due and arm the timer for the next one
+    private void runDueTransitions() {
+        lock.lock();
+        try {
+            runDueTransitionsLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runDueTransitionsLocked() {
+        nextRun = null;
+        nextRunAt = null;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ScheduleTransition> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().isDueAt(now)) {
+            due.add(queue.poll());
+        }
+
+        if (!due.isEmpty()) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                queue.addAll(contentScheduleService.applyTransitions(due, now));
+                sample.stop(meterRegistry.timer("schedule.transitions.apply", "outcome", "success"));
+                meterRegistry.counter("schedule.transitions.applied").increment(due.size());
+            } catch (Exception e) {
+                sample.stop(meterRegistry.timer("schedule.transitions.apply", "outcome", "failure"));
+                log.warn("Error applying schedule transitions, retrying in {}s: {}", RETRY_DELAY_SECONDS, e.getMessage());
+                LocalDateTime retryAt = now.plusSeconds(RETRY_DELAY_SECONDS);
+                for (ScheduleTransition transition : due) {
+                    queue.add(new ScheduleTransition(retryAt, transition.getType(), transition.getTargetId()));
+                }
+            }
+        }
+        scheduleNextRun();
+    }
+
+    // (Re)arm the timer for the head of the queue, only if it changed. Call with the lock held.
+    private void scheduleNextRun() {
+        pendingCount = queue.size();
+        ScheduleTransition head = queue.peek();
+        LocalDateTime headAt = head != null ? head.getAt() : null;
+        if (nextRun != null && headAt != null && headAt.equals(nextRunAt)) {
+            return;
+        }
+
+        if (nextRun != null) {
+            nextRun.cancel(false);
+            nextRun = null;
+            nextRunAt = null;
+        }
+        if (headAt != null) {
+            nextRunAt = headAt;
+            nextRun = taskScheduler.schedule(this::runDueTransitions, headAt.atZone(ZoneId.systemDefault()).toInstant());
+        }
+    }
+}
@@ -1,43 +1,107 @@
 package org.hyper.notificationbackend.services;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class SensorDataCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorDataCacheService.class);
+    
+    // Immutable snapshot of the last successful fetch, replaced atomically so readers
+    // never see a partially updated (or empty) map
+    private static final class CachedSensorData {
+        private final Map<String, Object> data;
+        private final long timestamp;
+        
+        private CachedSensorData(Map<String, Object> data, long timestamp) {
+            this.data = data;
+            this.timestamp = timestamp;
+        }
+    }
     
-    private final Map<String, Object> cachedSensorData = new ConcurrentHashMap<>();
-    private long lastUpdateTimestamp = 0;
+    private final AtomicReference<CachedSensorData> cachedSensorData =
+            new AtomicReference<>(new CachedSensorData(Map.of(), 0));
+    
+    // How old cached data may get before it is stale (served, but revalidated in the background)
+    // and expired (not served as current, fetched while the client waits). 0 disables the limit.
+    @Value("${app.sensor.cache.soft-ttl-seconds:30}")
+    private long softTtlSeconds;
+    
+    @Value("${app.sensor.cache.hard-ttl-seconds:600}")
+    private long hardTtlSeconds;
+    
+    // Last time a client read the sensor data, drives the adaptive polling interval
+    private final AtomicLong lastReadTimestamp = new AtomicLong();
+    
+    public enum Freshness {
+        // Within the soft TTL
+        FRESH,
+        // Past the soft TTL, still within the hard TTL
+        STALE,
+        // Past the hard TTL, or nothing cached
+        EXPIRED
+    }
     
     public void updateSensorData(Map<String, Object> sensorData) {
-        cachedSensorData.clear();
-        cachedSensorData.putAll(sensorData);
-        lastUpdateTimestamp = System.currentTimeMillis();
+        CachedSensorData updated = new CachedSensorData(
+                java.util.Collections.unmodifiableMap(new HashMap<>(sensorData)), System.currentTimeMillis());
+        cachedSensorData.set(updated);
         
-        System.out.println("=== SENSOR DATA CACHE UPDATED ===");
-        System.out.println("Temperature: " + cachedSensorData.get("temperature") + " " + cachedSensorData.get("temperature_unit"));
-        System.out.println("Pressure: " + cachedSensorData.get("pressure") + " " + cachedSensorData.get("pressure_unit"));
-        System.out.println("Humidity: " + cachedSensorData.get("humidity") + " " + cachedSensorData.get("humidity_unit"));
-        System.out.println("Cache updated at: " + new java.util.Date(lastUpdateTimestamp));
+        log.debug("Sensor data cache updated: temperature={} {}, pressure={} {}, humidity={} {}",
+                updated.data.get("temperature"), updated.data.get("temperature_unit"),
+                updated.data.get("pressure"), updated.data.get("pressure_unit"),
+                updated.data.get("humidity"), updated.data.get("humidity_unit"));
     }
     
     public Map<String, Object> getCachedSensorData() {
-        Map<String, Object> result = new ConcurrentHashMap<>(cachedSensorData);
-        result.put("cache_timestamp", lastUpdateTimestamp);
-        result.put("data_age_seconds", (System.currentTimeMillis() - lastUpdateTimestamp) / 1000);
+        CachedSensorData current = cachedSensorData.get();
+        Map<String, Object> result = new HashMap<>(current.data);
+        result.put("cache_timestamp", current.timestamp);
+        result.put("data_age_seconds", (System.currentTimeMillis() - current.timestamp) / 1000);
         return result;
     }
     
+    public Freshness getFreshness() {
+        if (!hasCachedData()) {
+            return Freshness.EXPIRED;
+        }
+        long ageMillis = System.currentTimeMillis() - cachedSensorData.get().timestamp;
+        if (hardTtlSeconds > 0 && ageMillis > hardTtlSeconds * 1000) {
+            return Freshness.EXPIRED;
+        }
+        if (softTtlSeconds > 0 && ageMillis > softTtlSeconds * 1000) {
+            return Freshness.STALE;
+        }
+        return Freshness.FRESH;
+    }
+    
+    public void recordRead() {
+        lastReadTimestamp.set(System.currentTimeMillis());
+    }
+    
+    // Milliseconds since a client last read the data (Long.MAX_VALUE if none has yet)
+    public long getMillisSinceLastRead() {
+        long lastRead = lastReadTimestamp.get();
+        return lastRead == 0 ? Long.MAX_VALUE : System.currentTimeMillis() - lastRead;
+    }
+    
     public boolean hasCachedData() {
-        return !cachedSensorData.isEmpty() && lastUpdateTimestamp > 0;
+        CachedSensorData current = cachedSensorData.get();
+        return !current.data.isEmpty() && current.timestamp > 0;
     }
     
     public long getLastUpdateTimestamp() {
-        return lastUpdateTimestamp;
+        return cachedSensorData.get().timestamp;
     }
     
     public long getDataAgeInSeconds() {
-        return (System.currentTimeMillis() - lastUpdateTimestamp) / 1000;
+        return (System.currentTimeMillis() - cachedSensorData.get().timestamp) / 1000;
     }
 }
@@ -1,67 +1,158 @@
 package org.hyper.notificationbackend.services;
 
+import org.hyper.notificationbackend.concurrent.SingleFlight;
+import org.hyper.notificationbackend.sensors.SensorReading;
+import org.hyper.notificationbackend.sensors.SensorSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
-import java.util.Map;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class SensorDataSchedulerService {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorDataSchedulerService.class);
     
+    // Every registered source (the Niagara scraper and any additional ones)
     @Autowired
-    private DeviceService deviceService;
+    private List<SensorSource> sensorSources;
+    
+    @Autowired
+    private SensorStoreService sensorStore;
+    
+    // Off when there is no Niagara controller to poll (e.g. the load-test profile)
+    @Value("${app.sensor.polling.enabled:true}")
+    private boolean pollingEnabled;
+    
+    // Runs manual refreshes off the request thread (virtual threads when enabled)
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
     
     @Autowired
     private SensorDataCacheService cacheService;
     
-    private boolean isUpdating = false;
-    // Run every 15 seconds (15000 milliseconds)
-    @Scheduled(fixedRate = 15000, initialDelay = 10000)
+    @Autowired
+    private TaskScheduler taskScheduler;
+    
+    // Polling interval while clients are reading the data
+    @Value("${app.sensor.polling.active-interval-ms:15000}")
+    private long activeIntervalMs;
+    
+    // Without a read for this long the interval doubles after every poll, up to max-idle-interval-ms
+    @Value("${app.sensor.polling.idle-after-seconds:300}")
+    private long idleAfterSeconds;
+    
+    @Value("${app.sensor.polling.max-idle-interval-ms:1800000}")
+    private long maxIdleIntervalMs;
+    
+    @Value("${app.sensor.polling.initial-delay-ms:10000}")
+    private long initialDelayMs;
+    
+    // The update in progress: the scheduled tick, manual triggers and refreshes all join it
+    // instead of starting a second scrape
+    private final SingleFlight<Void> update = new SingleFlight<>();
+    
+    // Next scheduled poll, replaced after every update (guarded by scheduleLock)
+    private final ReentrantLock scheduleLock = new ReentrantLock();
+    private ScheduledFuture<?> nextPoll;
+    private int idlePolls;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (pollingEnabled) {
+            scheduleNextPoll(initialDelayMs);
+        }
+    }
+    
     public void updateSensorDataScheduled() {
-        if (isUpdating) {
-            System.out.println("=== SKIPPING SCHEDULED UPDATE (already in progress) ===");
-            return;
+        update.execute(this::pollSources,
+                () -> log.debug("Sensor update already in progress, waiting for it instead of starting another"));
+    }
+    
+    private Void pollSources() {
+        if (!pollingEnabled) {
+            return null;
         }
         
         try {
-            isUpdating = true;
-            System.out.println("=== SCHEDULED SENSOR DATA UPDATE STARTED ===");
-            
-            // Fetch fresh sensor data
-            Map<String, Object> freshData = deviceService.getDeviceData();
+            log.debug("Sensor data update started");
             
-            if (freshData != null && Boolean.TRUE.equals(freshData.get("success"))) {
-                // Update the cache with fresh data
-                cacheService.updateSensorData(freshData);
-                System.out.println("=== SCHEDULED UPDATE COMPLETED SUCCESSFULLY ===");
-            } else {
-                System.err.println("=== SCHEDULED UPDATE FAILED - No valid data received ===");
-                if (freshData != null && freshData.get("error") != null) {
-                    System.err.println("Error: " + freshData.get("error"));
+            // Poll every source, one failing source doesn't block the others
+            for (SensorSource source : sensorSources) {
+                try {
+                    List<SensorReading> readings = source.readSensors();
+                    sensorStore.ingest(readings);
+                    log.debug("Update completed ({}, {} readings)", source.getSourceId(), readings.size());
+                } catch (Exception e) {
+                    log.warn("Update failed - no valid data received from {}: {}", source.getSourceId(), e.getMessage());
                 }
             }
             
         } catch (Exception e) {
-            System.err.println("=== SCHEDULED UPDATE ERROR ===");
-            System.err.println("Error during scheduled sensor data update: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error during sensor data update", e);
         } finally {
-            isUpdating = false;
+            // Every update (scheduled or on demand) pushes the next poll back by a full interval
+            scheduleNextPoll(nextIntervalMs());
         }
+        return null;
     }
     
-    // Manual trigger for immediate update (used by API if needed)
-    public void triggerImmediateUpdate() {
-        if (isUpdating) {
-            System.out.println("Update already in progress, skipping manual trigger");
-            return;
+    // Active interval while clients read the data, then back off exponentially once they stop.
+    // A read during the back-off is answered from the cache and revalidated on demand (see DeviceController).
+    private long nextIntervalMs() {
+        scheduleLock.lock();
+        try {
+            if (cacheService.getMillisSinceLastRead() <= idleAfterSeconds * 1000) {
+                idlePolls = 0;
+                return activeIntervalMs;
+            }
+            idlePolls = Math.min(idlePolls + 1, 20);
+            return Math.min(activeIntervalMs << idlePolls, maxIdleIntervalMs);
+        } finally {
+            scheduleLock.unlock();
         }
-        
-        System.out.println("=== MANUAL SENSOR DATA UPDATE TRIGGERED ===");
-        updateSensorDataScheduled();
+    }
+    
+    private void scheduleNextPoll(long delayMs) {
+        scheduleLock.lock();
+        try {
+            if (nextPoll != null) {
+                nextPoll.cancel(false);
+            }
+            nextPoll = taskScheduler.schedule(this::updateSensorDataScheduled, Instant.now().plusMillis(delayMs));
+            log.debug("Next sensor poll in {} ms", delayMs);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+    
+    // Manual trigger for immediate update (used by API if needed), joins an update in progress
+    public void triggerImmediateUpdate() {
+        log.debug("Manual sensor data update triggered");
+        update.execute(this::pollSources,
+                () -> log.info("Update already in progress, joining it"));
+    }
+    
+    // Start an update in the background, or join the one in progress.
+    // The returned future completes when that update has finished.
+    public CompletableFuture<Void> refreshAsync() {
+        log.debug("Manual sensor data refresh triggered");
+        return update.submit(this::pollSources, taskExecutor);
     }
     
     public boolean isCurrentlyUpdating() {
-        return isUpdating;
+        return update.isInFlight();
     }
 }
@@ -0,0 +1,66 @@
+package org.hyper.notificationbackend.services;
+
+import org.hyper.notificationbackend.sensors.MetricHistory;
+import org.hyper.notificationbackend.sensors.SensorReading;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Typed time-series store for sensor readings from all ingestion sources.
+ * The latest values are kept in an immutable map that is swapped atomically, so readers
+ * always see a complete set; history is kept per source and metric in fixed-size ring buffers.
+ */
+@Service
+public class SensorStoreService {
+
+    // Points kept per metric, default 24h at the 15s polling resolution
+    @Value("${app.sensor.history.capacity:5760}")
+    private int historyCapacity;
+
+    private final Map<String, MetricHistory> histories = new ConcurrentHashMap<>();
+
+    // Latest reading per series key ("source/metric")
+    private final AtomicReference<Map<String, SensorReading>> latest = new AtomicReference<>(Map.of());
+
+    // Record readings from any source
+    public void ingest(List<SensorReading> readings) {
+        if (readings == null || readings.isEmpty()) {
+            return;
+        }
+
+        for (SensorReading reading : readings) {
+            histories.computeIfAbsent(reading.getSeriesKey(), key -> new MetricHistory(historyCapacity))
+                    .add(reading.getTimestamp(), reading.getValue());
+        }
+
+        latest.updateAndGet(current -> {
+            Map<String, SensorReading> updated = new HashMap<>(current);
+            for (SensorReading reading : readings) {
+                updated.put(reading.getSeriesKey(), reading);
+            }
+            return Map.copyOf(updated);
+        });
+    }
+
+    // Latest reading of every series
+    public Map<String, SensorReading> getLatestReadings() {
+        return latest.get();
+    }
+
+    public Optional<SensorReading> getLatest(String sourceId, String metric) {
+        return Optional.ofNullable(latest.get().get(SensorReading.seriesKey(sourceId, metric)));
+    }
+
+    // History of one series since the given time, empty if the series is unknown
+    public Optional<MetricHistory.Series> getHistory(String sourceId, String metric, long sinceTimestamp) {
+        MetricHistory history = histories.get(SensorReading.seriesKey(sourceId, metric));
+        return Optional.ofNullable(history).map(h -> h.since(sinceTimestamp));
+    }
+}
@@ -0,0 +1,94 @@
+package org.hyper.notificationbackend.services;
+
+import org.hyper.notificationbackend.dto.ResolvedTVContent;
+import org.hyper.notificationbackend.events.ContentChangedEvent;
+import org.hyper.notificationbackend.models.TV;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one precomputed {@link ResolvedTVContent} per TV in memory so that polling TVs
+ * are answered without touching the database. Snapshots are rebuilt lazily when they
+ * expire (next schedule boundary) or after a {@link ContentChangedEvent}.
+ */
+@Service
+public class TVContentSnapshotService {
+
+    @Autowired
+    private TVService tvService;
+
+    @Autowired
+    private ContentScheduleService contentScheduleService;
+
+    // Upper bound on how long a snapshot is trusted without any change event
+    @Value("${app.content.snapshot.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    // Snapshots keyed by normalized TV name
+    private final Map<String, ResolvedTVContent> snapshots = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so a rebuild racing with a change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    // Get the current snapshot for a TV, rebuilding it if missing or expired.
+    // Returns empty if no TV with this name exists.
+    public Optional<ResolvedTVContent> getSnapshot(String tvName) {
+        String key = normalize(tvName);
+        ResolvedTVContent snapshot = snapshots.get(key);
+        if (snapshot != null && snapshot.isValidAt(LocalDateTime.now())) {
+            return Optional.of(snapshot);
+        }
+        return rebuild(key, tvName);
+    }
+
+    private Optional<ResolvedTVContent> rebuild(String key, String tvName) {
+        long generationAtStart = generation.get();
+
+        Optional<TV> tv = tvService.getTVByName(tvName);
+        if (tv.isEmpty()) {
+            // Unknown names are not cached so arbitrary requests can't grow the map
+            snapshots.remove(key);
+            return Optional.empty();
+        }
+
+        ResolvedTVContent snapshot = contentScheduleService.resolveContentForTV(tv.get(), maxAgeSeconds);
+
+        // Only publish the snapshot if nothing changed while it was being built. An invalidation
+        // bumps the generation before clearing, so one landing between the check and the put
+        // is caught by the second check and the stale snapshot is taken back out.
+        if (generation.get() == generationAtStart) {
+            snapshots.put(key, snapshot);
+            if (generation.get() != generationAtStart) {
+                snapshots.remove(key, snapshot);
+            }
+        }
+        return Optional.of(snapshot);
+    }
+
+    // Drop snapshots affected by a change once the change is committed.
+    // Ordered first so listeners reading snapshots afterwards see the new content.
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.isAllTVs()) {
+            snapshots.clear();
+        } else {
+            snapshots.values().removeIf(snapshot -> event.affectsTV(snapshot.getTvId()));
+        }
+    }
+
+    private String normalize(String tvName) {
+        return tvName.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -1,16 +1,19 @@
 package org.hyper.notificationbackend.services;
 
+import org.hyper.notificationbackend.events.ProfileChangedEvent;
 import org.hyper.notificationbackend.models.TVProfile;
 import org.hyper.notificationbackend.models.TVProfileAssignment;
 import org.hyper.notificationbackend.models.TV;
 import org.hyper.notificationbackend.models.TVEnum;
 import org.hyper.notificationbackend.repositories.TVProfileAssignmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -25,6 +28,14 @@ public class TVProfileAssignmentService {
     @Autowired
     private TVService tvService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Helper method to notify connected TVs that their profile assignment changed
+    private void publishProfileChanged(TV tv) {
+        eventPublisher.publishEvent(ProfileChangedEvent.forTVs(Set.of(tv.getId())));
+    }
+    
     // Helper method to convert TVEnum to TV entity (for backward compatibility)
     private Optional<TV> convertTVEnumToEntity(TVEnum tvEnum) {
         return tvService.getActiveTVByName(tvEnum.name());
@@ -54,7 +65,9 @@ public class TVProfileAssignmentService {
         
         // Create new assignment
         TVProfileAssignment assignment = new TVProfileAssignment(tv, profile.get());
-        return assignmentRepository.save(assignment);
+        TVProfileAssignment savedAssignment = assignmentRepository.save(assignment);
+        publishProfileChanged(tv);
+        return savedAssignment;
     }
     
     // Get current profile assignment for a TV - TVEnum version for backward compatibility
@@ -94,6 +107,7 @@ public class TVProfileAssignmentService {
     // Remove profile assignment from TV - TV entity version
     public void removeProfileFromTV(TV tv) {
         assignmentRepository.deactivateAssignmentsForTV(tv);
+        publishProfileChanged(tv);
     }
     
     // Get all active assignments
@@ -119,6 +133,7 @@ public class TVProfileAssignmentService {
             TVProfileAssignment assign = assignment.get();
             assign.setActive(false);
             assignmentRepository.save(assign);
+            publishProfileChanged(assign.getTv());
         } else {
             throw new RuntimeException("Assignment not found with id: " + assignmentId);
         }
@@ -1,11 +1,13 @@
 package org.hyper.notificationbackend.services;
 
+import org.hyper.notificationbackend.events.ProfileChangedEvent;
 import org.hyper.notificationbackend.models.TVProfile;
 import org.hyper.notificationbackend.models.ProfileSlide;
 import org.hyper.notificationbackend.models.ProfileTimeSchedule;
 import org.hyper.notificationbackend.repositories.TVProfileRepository;
 import org.hyper.notificationbackend.repositories.ProfileTimeScheduleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +26,9 @@ public class TVProfileService {
     @Autowired
     private ProfileTimeScheduleRepository profileTimeScheduleRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     // Create a new profile
     public TVProfile createProfile(TVProfile profile) {
         validateProfile(profile);
@@ -72,7 +77,9 @@ public class TVProfileService {
             }
             
             validateProfile(profile);
-            return tvProfileRepository.save(profile);
+            TVProfile savedProfile = tvProfileRepository.save(profile);
+            eventPublisher.publishEvent(ProfileChangedEvent.forAllTVs());
+            return savedProfile;
         }
         throw new RuntimeException("Profile not found with id: " + id);
     }
@@ -84,6 +91,7 @@ public class TVProfileService {
             TVProfile p = profile.get();
             p.setActive(false);
             tvProfileRepository.save(p);
+            eventPublisher.publishEvent(ProfileChangedEvent.forAllTVs());
         } else {
             throw new RuntimeException("Profile not found with id: " + id);
         }
@@ -219,7 +227,9 @@ public class TVProfileService {
         }
         
         ProfileTimeSchedule timeSchedule = new ProfileTimeSchedule(startTime, endTime, profile);
-        return profileTimeScheduleRepository.save(timeSchedule);
+        ProfileTimeSchedule savedSchedule = profileTimeScheduleRepository.save(timeSchedule);
+        eventPublisher.publishEvent(ProfileChangedEvent.forAllTVs());
+        return savedSchedule;
     }
     
     // Remove time schedule from profile
@@ -240,6 +250,7 @@ public class TVProfileService {
         }
         
         profileTimeScheduleRepository.delete(schedule);
+        eventPublisher.publishEvent(ProfileChangedEvent.forAllTVs());
     }
     
     // Get all time schedules for a profile
@@ -0,0 +1,142 @@
+package org.hyper.notificationbackend.services;
+
+import org.hyper.notificationbackend.models.TV;
+import org.hyper.notificationbackend.repositories.TVRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of the tvs table keyed by normalized name and by id, so resolving the TV of a
+ * poll, a profile request or a content schedule's target names is a map lookup instead of a query.
+ * Loaded at startup and reloaded on the next lookup after TVService changes a TV.
+ *
+ * The TVs handed out are detached and shared between threads: read them, don't modify them.
+ */
+@Component
+public class TVRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TVRegistry.class);
+
+    @Autowired
+    private TVRepository tvRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile Snapshot snapshot;
+
+    // Bumped on every invalidation so a load racing with a change is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    // One load at a time (a lock rather than synchronized, the load blocks on the database)
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private record Snapshot(Map<String, TV> byName, Map<Long, TV> byId) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        load();
+    }
+
+    // Find a TV by name, ignoring case (like TVRepository.findByNameIgnoreCase)
+    public Optional<TV> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current().byName().get(normalize(name)));
+    }
+
+    public Optional<TV> findActiveByName(String name) {
+        return findByName(name).filter(TV::isActive);
+    }
+
+    public Optional<TV> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current().byId().get(id));
+    }
+
+    // Drop the loaded TVs. Inside a transaction this happens again after the commit,
+    // so a lookup between the change and the commit can't keep the old state.
+    public void invalidate() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    private Snapshot load() {
+        loadLock.lock();
+        try {
+            return loadLocked();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Snapshot loadLocked() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long generationAtStart = generation.get();
+
+        // Own read-only transaction: the TVs must not be managed by (and later flushed with) the caller's session
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(true);
+        List<TV> tvs = transaction.execute(status -> tvRepository.findAll());
+
+        Map<String, TV> byName = new HashMap<>();
+        Map<Long, TV> byId = new HashMap<>();
+        for (TV tv : tvs) {
+            byName.put(normalize(tv.getName()), tv);
+            byId.put(tv.getId(), tv);
+        }
+        Snapshot loaded = new Snapshot(Map.copyOf(byName), Map.copyOf(byId));
+
+        // Only keep the result if no TV changed while it was being loaded
+        if (generation.get() == generationAtStart) {
+            snapshot = loaded;
+            log.debug("Loaded {} TVs into the registry", tvs.size());
+        }
+        return loaded;
+    }
+
+    private String normalize(String tvName) {
+        return tvName.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -1,8 +1,10 @@
 package org.hyper.notificationbackend.services;
 
+import org.hyper.notificationbackend.events.ContentChangedEvent;
 import org.hyper.notificationbackend.models.TV;
 import org.hyper.notificationbackend.repositories.TVRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +18,18 @@ public class TVService {
     @Autowired
     private TVRepository tvRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private TVRegistry tvRegistry;
+    
+    // Helper method to notify listeners that what this TV displays may have changed
+    private void publishTVChanged(TV tv) {
+        tvRegistry.invalidate();
+        eventPublisher.publishEvent(ContentChangedEvent.forTVChange(tv.getId()));
+    }
+    
     // Create a new TV
     public TV createTV(TV tv) {
         validateTV(tv);
@@ -25,7 +39,9 @@ public class TVService {
             throw new IllegalArgumentException("TV with name '" + tv.getName() + "' already exists");
         }
         
-        return tvRepository.save(tv);
+        TV savedTV = tvRepository.save(tv);
+        publishTVChanged(savedTV);
+        return savedTV;
     }
     
     // Get all TVs
@@ -38,19 +54,19 @@ public class TVService {
         return tvRepository.findAllActiveOrderByName();
     }
     
-    // Get TV by ID
+    // Get TV by ID (from the registry, read-only)
     public Optional<TV> getTVById(Long id) {
-        return tvRepository.findById(id);
+        return tvRegistry.findById(id);
     }
     
-    // Get TV by name
+    // Get TV by name (from the registry, read-only)
     public Optional<TV> getTVByName(String name) {
-        return tvRepository.findByNameIgnoreCase(name);
+        return tvRegistry.findByName(name);
     }
     
-    // Get active TV by name
+    // Get active TV by name (from the registry, read-only)
     public Optional<TV> getActiveTVByName(String name) {
-        return tvRepository.findByNameIgnoreCaseAndActiveTrue(name);
+        return tvRegistry.findActiveByName(name);
     }
     
     // Update TV
@@ -79,7 +95,9 @@ public class TVService {
         existingTV.setLocation(updatedTV.getLocation());
         existingTV.setActive(updatedTV.isActive());
         
-        return tvRepository.save(existingTV);
+        TV savedTV = tvRepository.save(existingTV);
+        publishTVChanged(savedTV);
+        return savedTV;
     }
     
     // Delete TV (soft delete by setting active to false)
@@ -92,6 +110,7 @@ public class TVService {
         TV tv = tvOpt.get();
         tv.setActive(false);
         tvRepository.save(tv);
+        publishTVChanged(tv);
     }
     
     // Permanently delete TV (use with caution)
@@ -101,6 +120,8 @@ public class TVService {
         }
         
         tvRepository.deleteById(id);
+        tvRegistry.invalidate();
+        eventPublisher.publishEvent(ContentChangedEvent.forTVChange(id));
     }
     
     // Search TVs by display name
@@ -122,18 +143,20 @@ public class TVService {
         
         TV tv = tvOpt.get();
         tv.setActive(!tv.isActive());
-        return tvRepository.save(tv);
+        TV savedTV = tvRepository.save(tv);
+        publishTVChanged(savedTV);
+        return savedTV;
     }
     
     // Check if TV exists and is active
     public boolean isTVActiveById(Long id) {
-        Optional<TV> tvOpt = tvRepository.findById(id);
+        Optional<TV> tvOpt = tvRegistry.findById(id);
         return tvOpt.isPresent() && tvOpt.get().isActive();
     }
     
     // Check if TV exists and is active by name
     public boolean isTVActiveByName(String name) {
-        Optional<TV> tvOpt = tvRepository.findByNameIgnoreCaseAndActiveTrue(name);
+        Optional<TV> tvOpt = tvRegistry.findActiveByName(name);
         return tvOpt.isPresent();
     }
     
@@ -0,0 +1,338 @@
+package org.hyper.notificationbackend.services;
+
+import jakarta.annotation.PreDestroy;
+import org.hyper.notificationbackend.dto.ResolvedTVContent;
+import org.hyper.notificationbackend.events.ContentChangedEvent;
+import org.hyper.notificationbackend.events.ProfileChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events push channel for TV displays. A TV connects once to
+ * /api/content/tv/{tvName}/stream and receives its full current content in a "content"
+ * event on connect. When its resolved content actually changes it receives a
+ * "content-delta" event: a JSON Merge Patch (RFC 7386) from the version it last got
+ * (baseVersion) to the new one. Profile changes are announced with a "profile" event
+ * telling the TV to reload its profile.
+ */
+@Service
+public class TVStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(TVStreamService.class);
+
+    @Autowired
+    private TVContentSnapshotService snapshotService;
+
+    // Streams are closed after this long; the browser's EventSource then reconnects
+    // on its own and gets the full state again
+    @Value("${app.tv.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    // Reconnect delay suggested to clients
+    @Value("${app.tv.stream.reconnect-ms:5000}")
+    private long reconnectMs;
+
+    // A screen whose write has been blocked this long (full TCP window, dead client) is dropped
+    @Value("${app.tv.stream.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    // Connected streams per TV id
+    private final Map<Long, List<TVStream>> streams = new ConcurrentHashMap<>();
+
+    // Every send runs on its own virtual thread, off the request/scheduler thread: a screen that
+    // stops reading only blocks its own sends, never a commit or the other screens
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Open a stream for a TV. Returns empty if no TV with this name exists.
+    public Optional<SseEmitter> subscribe(String tvName) {
+        Optional<ResolvedTVContent> snapshot = snapshotService.getSnapshot(tvName);
+        if (snapshot.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Long tvId = snapshot.get().getTvId();
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        TVStream stream = new TVStream(tvId, tvName, emitter);
+
+        List<TVStream> tvStreams = streams.computeIfAbsent(tvId, id -> new CopyOnWriteArrayList<>());
+        tvStreams.add(stream);
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> remove(stream));
+        emitter.onError(error -> remove(stream));
+
+        // Full state on every (re)connect, so clients never need to replay missed events
+        stream.lock.lock();
+        try {
+            stream.lastVersion = snapshot.get().getVersion();
+            stream.lastPayload = buildContentPayload(snapshot.get());
+            send(stream, SseEmitter.event()
+                    .name("content")
+                    .id(snapshot.get().getVersion())
+                    .reconnectTime(reconnectMs)
+                    .data(stream.lastPayload));
+        } finally {
+            stream.lock.unlock();
+        }
+        return Optional.of(emitter);
+    }
+
+    public int getConnectionCount() {
+        return streams.values().stream().mapToInt(List::size).sum();
+    }
+
+    // Runs after the snapshot service has dropped the affected snapshots
+    @Order(10)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        for (List<TVStream> tvStreams : streams.values()) {
+            for (TVStream stream : tvStreams) {
+                if (event.affectsTV(stream.tvId)) {
+                    submit(() -> pushContent(stream));
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(ProfileChangedEvent event) {
+        for (List<TVStream> tvStreams : streams.values()) {
+            for (TVStream stream : tvStreams) {
+                if (event.affectsTV(stream.tvId)) {
+                    submit(() -> pushProfileChanged(stream));
+                }
+            }
+        }
+    }
+
+    // Keep idle connections (and proxies in between) alive and detect dead screens
+    @Scheduled(fixedRateString = "${app.tv.stream.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        for (List<TVStream> tvStreams : streams.values()) {
+            for (TVStream stream : tvStreams) {
+                long writeStartedAt = stream.writeStartedAt;
+                if (writeStartedAt != 0 && now - writeStartedAt > writeTimeoutMs) {
+                    fail(stream, new TimeoutException("Write blocked for more than " + writeTimeoutMs + " ms"));
+                } else {
+                    submit(() -> sendHeartbeat(stream));
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+        for (List<TVStream> tvStreams : streams.values()) {
+            for (TVStream stream : tvStreams) {
+                stream.emitter.complete();
+            }
+        }
+        streams.clear();
+    }
+
+    // Send what changed in the TV's content since what this stream last received, if anything
+    private void pushContent(TVStream stream) {
+        try {
+            Optional<ResolvedTVContent> snapshot = snapshotService.getSnapshot(stream.tvName);
+            if (snapshot.isEmpty()) {
+                // The TV was deleted
+                stream.emitter.complete();
+                return;
+            }
+
+            if (!lockStream(stream)) {
+                return;
+            }
+            try {
+                String version = snapshot.get().getVersion();
+                if (version.equals(stream.lastVersion)) {
+                    return;
+                }
+                Map<String, Object> payload = buildContentPayload(snapshot.get());
+                Map<String, Object> patch = mergePatch(stream.lastPayload, payload);
+                String baseVersion = stream.lastVersion;
+                stream.lastVersion = version;
+                stream.lastPayload = payload;
+                if (patch.isEmpty()) {
+                    return;
+                }
+
+                Map<String, Object> delta = new HashMap<>();
+                delta.put("tvName", stream.tvName);
+                delta.put("baseVersion", baseVersion);
+                delta.put("version", version);
+                delta.put("patch", patch);
+                send(stream, SseEmitter.event()
+                        .name("content-delta")
+                        .id(version)
+                        .data(delta));
+            } finally {
+                stream.lock.unlock();
+            }
+        } catch (Exception e) {
+            log.warn("Error pushing content to TV {}: {}", stream.tvName, e.getMessage());
+        }
+    }
+
+    // Content event body: the /current and /rotation-info responses together, plus every
+    // image URL so the screen can rotate images without polling
+    private Map<String, Object> buildContentPayload(ResolvedTVContent snapshot) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("tvName", snapshot.getTvName());
+        payload.put("current", snapshot.toCurrentContentResponse(0));
+        payload.put("rotationInfo", snapshot.toRotationInfo());
+        if (snapshot.getImageUrls() != null) {
+            payload.put("allImageUrls", snapshot.getImageUrls());
+        }
+        return payload;
+    }
+
+    // JSON Merge Patch turning previous into current: changed keys with their new value and removed
+    // keys as null; nested objects (current, rotationInfo) are diffed key by key, arrays replaced whole
+    static Map<String, Object> mergePatch(Map<?, ?> previous, Map<?, ?> current) {
+        Map<String, Object> patch = new HashMap<>();
+        for (Map.Entry<?, ?> entry : current.entrySet()) {
+            Object before = previous.get(entry.getKey());
+            Object after = entry.getValue();
+            if (before instanceof Map<?, ?> beforeMap && after instanceof Map<?, ?> afterMap) {
+                Map<String, Object> nested = mergePatch(beforeMap, afterMap);
+                if (!nested.isEmpty()) {
+                    patch.put(entry.getKey().toString(), nested);
+                }
+            } else if (!Objects.equals(before, after)) {
+                patch.put(entry.getKey().toString(), after);
+            }
+        }
+        for (Object key : previous.keySet()) {
+            if (!current.containsKey(key)) {
+                patch.put(key.toString(), null);
+            }
+        }
+        return patch;
+    }
+
+    private void pushProfileChanged(TVStream stream) {
+        if (!lockStream(stream)) {
+            return;
+        }
+        try {
+            send(stream, SseEmitter.event()
+                    .name("profile")
+                    .data(Map.of("tvName", stream.tvName, "changed", true)));
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    // Skipped while another send is in progress: that write already shows whether the screen is alive
+    private void sendHeartbeat(TVStream stream) {
+        if (!stream.lock.tryLock()) {
+            return;
+        }
+        try {
+            send(stream, SseEmitter.event().comment("heartbeat"));
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            sendExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    // Take the stream's lock (which keeps its events in order). Gives up on the stream, completing it
+    // with an error, when a previous write has held the lock for longer than the write timeout.
+    private boolean lockStream(TVStream stream) {
+        try {
+            if (stream.lock.tryLock(writeTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            fail(stream, new TimeoutException("Write blocked for more than " + writeTimeoutMs + " ms"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    // Call with the stream's lock held
+    private void send(TVStream stream, SseEmitter.SseEventBuilder event) {
+        stream.writeStartedAt = System.currentTimeMillis();
+        try {
+            stream.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            fail(stream, e);
+        } finally {
+            stream.writeStartedAt = 0;
+        }
+    }
+
+    // Drop a stream whose client is gone or stuck; only this screen is affected
+    private void fail(TVStream stream, Exception cause) {
+        if (!stream.closed.compareAndSet(false, true)) {
+            return;
+        }
+        log.debug("Closing stream of TV {}: {}", stream.tvName, cause.getMessage());
+        remove(stream);
+        try {
+            stream.emitter.completeWithError(cause);
+        } catch (Exception e) {
+            // Already completed
+        }
+    }
+
+    private void remove(TVStream stream) {
+        List<TVStream> tvStreams = streams.get(stream.tvId);
+        if (tvStreams != null) {
+            tvStreams.remove(stream);
+        }
+    }
+
+    private static final class TVStream {
+        private final Long tvId;
+        private final String tvName;
+        private final SseEmitter emitter;
+        // Serializes sends on the emitter (a lock, not synchronized, so a virtual thread sending doesn't pin its carrier)
+        private final ReentrantLock lock = new ReentrantLock();
+        // Version and payload of the last content sent on this stream (the delta base), guarded by the lock
+        private String lastVersion;
+        private Map<String, Object> lastPayload;
+        // When the write in progress started, 0 when none is (read by the heartbeat's stuck check)
+        private volatile long writeStartedAt;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private TVStream(Long tvId, String tvName, SseEmitter emitter) {
+            this.tvId = tvId;
+            this.tvName = tvName;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+-- Baseline: the schema as previously generated by Hibernate (ddl-auto=update).
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate), so this
+-- script only runs on an empty database.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(20),
+    password VARCHAR(120),
+    role VARCHAR(20),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+) ENGINE = InnoDB;
+
+CREATE TABLE tvs (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(50) NOT NULL,
+    display_name VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    location VARCHAR(100),
+    active BIT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_tvs_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE content_schedules (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(255),
+    description VARCHAR(255),
+    content_type VARCHAR(50),
+    content LONGTEXT,
+    start_time DATETIME(6),
+    end_time DATETIME(6),
+    active BIT NOT NULL,
+    is_immediate BIT,
+    is_daily_schedule BIT,
+    daily_start_time VARCHAR(255),
+    daily_end_time VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE content_images (
+    schedule_id BIGINT NOT NULL,
+    image_url LONGTEXT,
+    CONSTRAINT fk_content_images_schedule FOREIGN KEY (schedule_id) REFERENCES content_schedules (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE content_videos (
+    schedule_id BIGINT NOT NULL,
+    video_url LONGTEXT,
+    CONSTRAINT fk_content_videos_schedule FOREIGN KEY (schedule_id) REFERENCES content_schedules (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE content_tv_mapping (
+    schedule_id BIGINT NOT NULL,
+    tv_id BIGINT NOT NULL,
+    PRIMARY KEY (schedule_id, tv_id),
+    CONSTRAINT fk_content_tv_mapping_schedule FOREIGN KEY (schedule_id) REFERENCES content_schedules (id),
+    CONSTRAINT fk_content_tv_mapping_tv FOREIGN KEY (tv_id) REFERENCES tvs (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE time_schedules (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    start_time DATETIME(6) NOT NULL,
+    end_time DATETIME(6) NOT NULL,
+    active BIT,
+    temporarily_disabled_content_ids TEXT,
+    content_schedule_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_time_schedules_content FOREIGN KEY (content_schedule_id) REFERENCES content_schedules (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE time_schedule_suppressions (
+    time_schedule_id BIGINT NOT NULL,
+    content_schedule_id BIGINT NOT NULL,
+    PRIMARY KEY (time_schedule_id, content_schedule_id),
+    INDEX idx_suppression_content (content_schedule_id),
+    CONSTRAINT fk_suppressions_time_schedule FOREIGN KEY (time_schedule_id) REFERENCES time_schedules (id),
+    CONSTRAINT fk_suppressions_content FOREIGN KEY (content_schedule_id) REFERENCES content_schedules (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE tv_profiles (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    is_immediate BIT,
+    is_daily_schedule BIT,
+    daily_start_time VARCHAR(255),
+    daily_end_time VARCHAR(255),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    active BIT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE profile_slides (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    profile_id BIGINT NOT NULL,
+    slide_order INT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    content_type VARCHAR(50) NOT NULL,
+    content LONGTEXT,
+    duration_seconds INT NOT NULL,
+    active BIT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_profile_slides_profile FOREIGN KEY (profile_id) REFERENCES tv_profiles (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE profile_slide_images (
+    slide_id BIGINT NOT NULL,
+    image_url LONGTEXT,
+    CONSTRAINT fk_profile_slide_images_slide FOREIGN KEY (slide_id) REFERENCES profile_slides (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE profile_slide_videos (
+    slide_id BIGINT NOT NULL,
+    video_url LONGTEXT,
+    CONSTRAINT fk_profile_slide_videos_slide FOREIGN KEY (slide_id) REFERENCES profile_slides (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE profile_time_schedules (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    start_time DATETIME(6) NOT NULL,
+    end_time DATETIME(6) NOT NULL,
+    active BIT,
+    tv_profile_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_profile_time_schedules_profile FOREIGN KEY (tv_profile_id) REFERENCES tv_profiles (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE tv_profile_assignments (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    tv_id BIGINT NOT NULL,
+    profile_id BIGINT NOT NULL,
+    assigned_at DATETIME(6) NOT NULL,
+    active BIT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_tv_profile_assignments_tv FOREIGN KEY (tv_id) REFERENCES tvs (id),
+    CONSTRAINT fk_tv_profile_assignments_profile FOREIGN KEY (profile_id) REFERENCES tv_profiles (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,33 @@
+-- Indexes for the scheduling queries (TimeScheduleRepository, ContentScheduleRepository, TVRepository).
+
+-- Databases baselined before the suppression relation existed don't have its table yet
+CREATE TABLE IF NOT EXISTS time_schedule_suppressions (
+    time_schedule_id BIGINT NOT NULL,
+    content_schedule_id BIGINT NOT NULL,
+    PRIMARY KEY (time_schedule_id, content_schedule_id),
+    INDEX idx_suppression_content (content_schedule_id),
+    CONSTRAINT fk_suppressions_time_schedule FOREIGN KEY (time_schedule_id) REFERENCES time_schedules (id),
+    CONSTRAINT fk_suppressions_content FOREIGN KEY (content_schedule_id) REFERENCES content_schedules (id)
+) ENGINE = InnoDB;
+
+-- TV -> content: every per-TV query (findCurrentlyActiveForTV, findUpcomingForTV, findImmediateForTV,
+-- findDailyScheduleForTV) starts from the TV side of the mapping
+CREATE INDEX idx_content_tv_mapping_tv ON content_tv_mapping (tv_id, schedule_id);
+
+-- Time slots of a content schedule by state and window (findCurrentlyActiveForTV, findUpcomingForTV)
+CREATE INDEX idx_time_schedules_content_window ON time_schedules (content_schedule_id, active, start_time, end_time);
+
+-- Global scans by window: findExpired/findCurrentlyActive (end_time), findUpcoming (start_time)
+CREATE INDEX idx_time_schedules_active_end ON time_schedules (active, end_time);
+CREATE INDEX idx_time_schedules_active_start ON time_schedules (active, start_time);
+
+-- findImmediateSchedules, findActiveDailySchedules and the per-TV filters on top of the mapping
+CREATE INDEX idx_content_schedules_active_immediate ON content_schedules (active, is_immediate);
+CREATE INDEX idx_content_schedules_active_daily ON content_schedules (active, is_daily_schedule);
+
+-- TV lookup by name ignoring case (findByNameIgnoreCase compares upper(name)), functional index: MySQL 8.0.13+
+CREATE INDEX idx_tvs_name_upper ON tvs ((UPPER(name)));
+
+-- Profile resolution for a TV poll
+CREATE INDEX idx_tv_profile_assignments_tv_active ON tv_profile_assignments (tv_id, active);
+CREATE INDEX idx_profile_time_schedules_profile_window ON profile_time_schedules (tv_profile_id, active, start_time, end_time);
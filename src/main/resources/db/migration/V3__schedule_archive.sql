@@ -0,0 +1,48 @@
+-- Archive of content schedules that ended beyond the retention window (ScheduleArchiveService).
+-- Ids are the original content_schedules ids; TVs are kept by name so the archive doesn't pin tvs rows.
+
+CREATE TABLE content_schedules_archive (
+    id BIGINT NOT NULL,
+    title VARCHAR(255),
+    description VARCHAR(255),
+    content_type VARCHAR(50),
+    content LONGTEXT,
+    is_immediate BIT NOT NULL,
+    is_daily_schedule BIT NOT NULL,
+    daily_start_time VARCHAR(255),
+    daily_end_time VARCHAR(255),
+    first_start_time DATETIME(6),
+    last_end_time DATETIME(6),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_archive_last_end (last_end_time),
+    INDEX idx_archive_archived_at (archived_at)
+) ENGINE = InnoDB;
+
+CREATE TABLE content_images_archive (
+    schedule_id BIGINT NOT NULL,
+    image_url LONGTEXT,
+    CONSTRAINT fk_content_images_archive_schedule FOREIGN KEY (schedule_id) REFERENCES content_schedules_archive (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE content_videos_archive (
+    schedule_id BIGINT NOT NULL,
+    video_url LONGTEXT,
+    CONSTRAINT fk_content_videos_archive_schedule FOREIGN KEY (schedule_id) REFERENCES content_schedules_archive (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE content_tv_archive (
+    schedule_id BIGINT NOT NULL,
+    tv_name VARCHAR(50) NOT NULL,
+    PRIMARY KEY (schedule_id, tv_name),
+    INDEX idx_content_tv_archive_tv (tv_name),
+    CONSTRAINT fk_content_tv_archive_schedule FOREIGN KEY (schedule_id) REFERENCES content_schedules_archive (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE time_schedules_archive (
+    schedule_id BIGINT NOT NULL,
+    start_time DATETIME(6) NOT NULL,
+    end_time DATETIME(6) NOT NULL,
+    INDEX idx_time_schedules_archive_schedule (schedule_id, start_time),
+    CONSTRAINT fk_time_schedules_archive_schedule FOREIGN KEY (schedule_id) REFERENCES content_schedules_archive (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,159 @@
+package org.hyper.notificationbackend.controllers;
+
+import org.hyper.notificationbackend.services.MediaStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Conditional and byte range requests against files in a temporary upload directory
+class MediaControllerTests {
+
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    private static final String URL = "/uploads/" + HASH + ".mp4";
+    private static final String ETAG = "\"" + HASH + "\"";
+    private static final int LENGTH = 1000;
+
+    @TempDir
+    Path uploadDir;
+
+    private final byte[] data = new byte[LENGTH];
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < LENGTH; i++) {
+            data[i] = (byte) i;
+        }
+        Files.write(uploadDir.resolve(HASH + ".mp4"), data);
+        Files.createDirectories(uploadDir.resolve(".incoming"));
+        Files.write(uploadDir.resolve(".incoming").resolve("partial.mp4"), data);
+
+        MediaStorageService mediaStorageService = new MediaStorageService();
+        ReflectionTestUtils.setField(mediaStorageService, "uploadDir", uploadDir.toString());
+        MediaController controller = new MediaController();
+        ReflectionTestUtils.setField(controller, "mediaStorageService", mediaStorageService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private byte[] bytes(int from, int to) {
+        return Arrays.copyOfRange(data, from, to);
+    }
+
+    @Test
+    void servesTheWholeFileWithImmutableCaching() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, LENGTH))
+                .andExpect(content().bytes(data));
+    }
+
+    @Test
+    void servesABoundedRange() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/1000"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(content().bytes(bytes(100, 200)));
+    }
+
+    @Test
+    void clampsTheRangeToTheEndOfTheFile() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=900-5000"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 900-999/1000"))
+                .andExpect(content().bytes(bytes(900, LENGTH)));
+    }
+
+    @Test
+    void servesAnOpenEndedRange() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=990-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 990-999/1000"))
+                .andExpect(content().bytes(bytes(990, LENGTH)));
+    }
+
+    @Test
+    void servesASuffixRange() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-10"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 990-999/1000"))
+                .andExpect(content().bytes(bytes(990, LENGTH)));
+
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-5000"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-999/1000"))
+                .andExpect(content().bytes(data));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() throws Exception {
+        for (String range : new String[] {"bytes=1000-", "bytes=1000-2000", "bytes=-0", "bytes=99999999999999999999-"}) {
+            mockMvc.perform(get(URL).header(HttpHeaders.RANGE, range))
+                    .andExpect(status().isRequestedRangeNotSatisfiable())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */1000"));
+        }
+    }
+
+    @Test
+    void ignoresInvalidRanges() throws Exception {
+        for (String range : new String[] {"bytes=500-100", "bytes=-", "bytes=0-1,5-6", "items=0-10"}) {
+            mockMvc.perform(get(URL).header(HttpHeaders.RANGE, range))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                    .andExpect(content().bytes(data));
+        }
+    }
+
+    @Test
+    void ignoresTheRangeWhenIfRangeDoesNotMatch() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(data));
+
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(bytes(0, 10)));
+    }
+
+    @Test
+    void answersNotModifiedForAMatchingETag() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void headSendsTheHeadersWithoutTheBody() throws Exception {
+        mockMvc.perform(head(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, LENGTH))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void hidesDotEntriesAndMissingFiles() throws Exception {
+        mockMvc.perform(get("/uploads/.incoming/partial.mp4")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/uploads/a/../.incoming/partial.mp4")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/uploads/missing.mp4")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,96 @@
+package org.hyper.notificationbackend.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// findOverlapping against a linear scan, on random intervals over a small grid so starts and endpoints collide often
+class IntervalTreeTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 5, 8, 0);
+
+    private record Slot(int id, LocalDateTime start, LocalDateTime end) {}
+
+    private static LocalDateTime at(int minutes) {
+        return BASE.plusMinutes(minutes);
+    }
+
+    private static IntervalTree<Slot> tree(List<Slot> slots) {
+        return new IntervalTree<>(slots, Slot::start, Slot::end);
+    }
+
+    // Same overlap rule as the tree, in the tree's order (by start, ties in insertion order)
+    private static List<Slot> bruteForce(List<Slot> slots, LocalDateTime start, LocalDateTime end) {
+        List<Slot> result = new ArrayList<>();
+        for (Slot slot : slots) {
+            if (slot.start().isBefore(end) && slot.end().isAfter(start)) {
+                result.add(slot);
+            }
+        }
+        result.sort(Comparator.comparing(Slot::start));
+        return result;
+    }
+
+    @Test
+    void matchesLinearScanOnRandomIntervals() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int count = random.nextInt(40);
+            List<Slot> slots = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int start = random.nextInt(60);
+                slots.add(new Slot(i, at(start), at(start + 1 + random.nextInt(20))));
+            }
+            IntervalTree<Slot> tree = tree(slots);
+            assertEquals(count, tree.size());
+
+            for (int query = 0; query < 50; query++) {
+                int start = random.nextInt(85) - 5;
+                LocalDateTime from = at(start);
+                LocalDateTime to = at(start + 1 + random.nextInt(25));
+                assertEquals(bruteForce(slots, from, to), tree.findOverlapping(from, to),
+                        "round " + round + ", query " + from + " - " + to);
+            }
+        }
+    }
+
+    @Test
+    void touchingEndpointsDoNotOverlap() {
+        Slot morning = new Slot(1, at(0), at(60));
+        Slot noon = new Slot(2, at(60), at(120));
+        IntervalTree<Slot> tree = tree(List.of(noon, morning));
+
+        assertEquals(List.of(morning), tree.findOverlapping(at(-30), at(60)));
+        assertEquals(List.of(noon), tree.findOverlapping(at(60), at(90)));
+        assertEquals(List.of(morning, noon), tree.findOverlapping(at(59), at(61)));
+        assertTrue(tree.findOverlapping(at(120), at(180)).isEmpty());
+    }
+
+    @Test
+    void identicalStartsAreAllReturned() {
+        List<Slot> slots = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            slots.add(new Slot(i, at(30), at(31 + i * 10)));
+        }
+        IntervalTree<Slot> tree = tree(slots);
+
+        assertEquals(slots, tree.findOverlapping(at(0), at(31)));
+        assertEquals(slots.subList(5, 9), tree.findOverlapping(at(80), at(200)));
+        assertTrue(tree.findOverlapping(at(0), at(30)).isEmpty());
+    }
+
+    @Test
+    void emptyTreeFindsNothing() {
+        IntervalTree<Slot> tree = tree(List.of());
+
+        assertEquals(0, tree.size());
+        assertTrue(tree.findOverlapping(at(0), at(60)).isEmpty());
+    }
+}
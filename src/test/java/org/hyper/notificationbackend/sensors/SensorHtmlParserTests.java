@@ -0,0 +1,121 @@
+package org.hyper.notificationbackend.sensors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Title parsing, point priority and unit matching on hand-written Niagara page fragments
+class SensorHtmlParserTests {
+
+    private final SensorHtmlParser parser = new SensorHtmlParser(SensorHtmlParser.DEFAULT_POINTS, true);
+
+    private static String title(String text) {
+        return "<div class=\"hx-label\" title=\"" + text + "\">x</div>\n";
+    }
+
+    @Test
+    void prefersHigherPriorityPointsOverEarlierTitles() {
+        String html = title("T° extérieure = = 14.2 °C {ok} @ def")
+                + title("Humidité extérieure = = 80.0 %RH {ok} @ def")
+                + title("T° moyenne CTA 1 = = 21.5 °C {ok} @ def")
+                + title("Pression CTA 1 = = 101.3 Pa {ok} @ def")
+                + title("Humidité moyenne CTA 1 = = 45.0 %RH {ok} @ def");
+
+        Map<String, String> data = parser.parse(html);
+
+        assertEquals("21.5", data.get("temperature"));
+        assertEquals("°C", data.get("temperature_unit"));
+        assertEquals("101.3", data.get("pressure"));
+        assertEquals("Pa", data.get("pressure_unit"));
+        assertEquals("45.0", data.get("humidity"));
+        assertEquals("%RH", data.get("humidity_unit"));
+    }
+
+    @Test
+    void keepsTheFirstTopPriorityMatchOnceEveryMetricIsFound() {
+        String html = title("T° moyenne CTA 1 = = 21.5 °C {ok} @ def")
+                + title("Pression CTA 1 = = 101.3 Pa {ok} @ def")
+                + title("Humidité CTA 1 = = 45.0 %RH {ok} @ def")
+                + title("T° moyenne CTA 2 = = 30.0 °C {ok} @ def")
+                + title("Humidité CTA 2 = = 60.0 %RH {ok} @ def");
+
+        Map<String, String> data = parser.parse(html);
+
+        assertEquals("21.5", data.get("temperature"));
+        assertEquals("45.0", data.get("humidity"));
+    }
+
+    @Test
+    void lowerPriorityPointIsUsedWhenNothingBetterExists() {
+        Map<String, String> data = parser.parse(title("T° extérieure = = -3.5 °C {ok} @ def"));
+
+        assertEquals("-3.5", data.get("temperature"));
+    }
+
+    @Test
+    void bareHumidityPercentCountsAsRelativeHumidity() {
+        Map<String, String> data = parser.parse(title("Humidité CTA 1 = = 45.0 % {ok} @ def"));
+
+        assertEquals("45.0", data.get("humidity"));
+        assertEquals("%RH", data.get("humidity_unit"));
+        assertFalse(data.containsKey("pressure"));
+    }
+
+    @Test
+    void otherPercentUnitsAreNotHumidity() {
+        Map<String, String> data = parser.parse(title("Vanne CTA 1 = = 30.0 %open {ok} @ def"));
+
+        assertFalse(data.containsKey("humidity"));
+    }
+
+    @Test
+    void matchesMisdecodedDegreeSigns() {
+        for (String unit : new String[] {"Â°C", "ΘC", "░C", "C"}) {
+            String html = title("T° extΘrieure = = 14.2 " + unit + " {ok} @ def")
+                    + title("T° moyenne CTA 1 = = 21.5 " + unit + " {ok} @ def");
+
+            Map<String, String> data = parser.parse(html);
+
+            assertEquals("21.5", data.get("temperature"), unit);
+            assertEquals("°C", data.get("temperature_unit"), unit);
+        }
+    }
+
+    @Test
+    void fallsBackToDisplayTextOnlyForMissingMetrics() {
+        String html = title("T° moyenne CTA 1 = = 21.5 °C {ok} @ def")
+                + "<span>18.0 Â°C</span><span>99.5 Pa</span><span>40.0 %RH</span>";
+
+        Map<String, String> data = parser.parse(html);
+
+        assertEquals("21.5", data.get("temperature"));
+        assertEquals("99.5", data.get("pressure"));
+        assertEquals("40.0", data.get("humidity"));
+
+        SensorHtmlParser withoutFallback = new SensorHtmlParser(SensorHtmlParser.DEFAULT_POINTS, false);
+        assertFalse(withoutFallback.parse(html).containsKey("pressure"));
+    }
+
+    @Test
+    void configuredPointsAddMetrics() {
+        SensorHtmlParser custom = new SensorHtmlParser(SensorHtmlParser.DEFAULT_POINTS + ",co2|ppm|CTA", false);
+
+        Map<String, String> data = custom.parse(title("CO2 CTA 1 = = 650 ppm {ok} @ def"));
+
+        assertEquals("650", data.get("co2"));
+        assertEquals("ppm", data.get("co2_unit"));
+    }
+
+    @Test
+    void rejectsInvalidPointSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> new SensorHtmlParser("", true));
+        assertThrows(IllegalArgumentException.class, () -> new SensorHtmlParser("temperature|°C", true));
+        assertThrows(IllegalArgumentException.class, () -> new SensorHtmlParser("|°C|CTA", true));
+        assertThrows(IllegalArgumentException.class, () -> new SensorHtmlParser("temperature||CTA", true));
+        assertThrows(IllegalArgumentException.class, () -> new SensorHtmlParser("temperature|°C|CTA|extra", true));
+    }
+}
@@ -0,0 +1,225 @@
+package org.hyper.notificationbackend.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hyper.notificationbackend.sensors.SensorHtmlParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the HTTP fetch strategy against a local stub replaying captured Niagara pages
+class DeviceServiceHttpFetchTests {
+
+    private static final String DATA_PATH = "/ord/file:%5EPx%20files/Affichage.px";
+    private static final String IFRAME_PATH = "/ord/file:%5EPx%20files/Affichage.px%7Cview:hx:HxPxView";
+    private static final String SESSION_COOKIE = "JSESSIONID=stub-session";
+
+    private HttpServer server;
+    private final AtomicInteger loginCount = new AtomicInteger();
+    private final AtomicInteger dataPageCount = new AtomicInteger();
+    // When set, the data page is held until the latch is released
+    private volatile CountDownLatch holdDataPage;
+    private NiagaraHttpFetcher fetcher;
+    private DeviceService deviceService;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        fetcher = new NiagaraHttpFetcher();
+        ReflectionTestUtils.setField(fetcher, "baseUrl", baseUrl);
+        ReflectionTestUtils.setField(fetcher, "dataPath", DATA_PATH);
+        ReflectionTestUtils.setField(fetcher, "timeoutMs", 2000L);
+        ReflectionTestUtils.setField(fetcher, "username", "niagara");
+        ReflectionTestUtils.setField(fetcher, "password", "secret");
+        ReflectionTestUtils.setField(fetcher, "meterRegistry", meterRegistry);
+        fetcher.init();
+
+        deviceService = new DeviceService();
+        ReflectionTestUtils.setField(deviceService, "httpFetcher", fetcher);
+        ReflectionTestUtils.setField(deviceService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(deviceService, "sensorHtmlParser", new SensorHtmlParser(SensorHtmlParser.DEFAULT_POINTS, true));
+        ReflectionTestUtils.setField(deviceService, "fetchMode", "http");
+        ReflectionTestUtils.setField(deviceService, "niagaraBaseUrl", baseUrl);
+        ReflectionTestUtils.setField(deviceService, "niagaraDataPath", DATA_PATH);
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetchesSensorValuesAndReusesSession() {
+        Map<String, Object> first = deviceService.getDeviceData();
+
+        assertEquals(true, first.get("success"));
+        assertEquals("http", first.get("fetch_method"));
+        assertEquals("21.5", first.get("temperature"));
+        assertEquals("101.3", first.get("pressure"));
+        assertEquals("45.0", first.get("humidity"));
+        assertEquals(1, loginCount.get());
+
+        Map<String, Object> second = deviceService.getDeviceData();
+
+        assertEquals(true, second.get("success"));
+        assertEquals(1, loginCount.get(), "session cookie should be reused");
+        assertEquals(2, meterRegistry.timer("niagara.fetch", "method", "http", "outcome", "success").count());
+        assertEquals(1.0, meterRegistry.counter("niagara.logins", "method", "http").count());
+    }
+
+    @Test
+    void logsInAgainAfterSessionReset() {
+        deviceService.getDeviceData();
+        fetcher.resetSession();
+
+        Map<String, Object> result = deviceService.getDeviceData();
+
+        assertEquals(true, result.get("success"));
+        assertEquals(2, loginCount.get());
+    }
+
+    @Test
+    void concurrentCallsShareOneFetch() throws Exception {
+        holdDataPage = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<Map<String, Object>>> results = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                results.add(callers.submit(() -> deviceService.getDeviceData()));
+            }
+
+            // Release the page once the four other callers have joined the first one
+            long deadline = System.currentTimeMillis() + 5000;
+            while (meterRegistry.counter("niagara.fetch.coalesced").count() < 4 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            holdDataPage.countDown();
+
+            for (Future<Map<String, Object>> result : results) {
+                assertEquals("21.5", result.get(5, TimeUnit.SECONDS).get("temperature"));
+            }
+            assertEquals(4.0, meterRegistry.counter("niagara.fetch.coalesced").count());
+            assertEquals(1, dataPageCount.get());
+            assertEquals(1, meterRegistry.timer("niagara.fetch", "method", "http", "outcome", "success").count());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void reportsFailureForWrongCredentials() {
+        ReflectionTestUtils.setField(fetcher, "password", "wrong");
+
+        Map<String, Object> result = deviceService.getDeviceData();
+
+        assertFalse((Boolean) result.get("success"));
+        assertTrue(result.get("error").toString().contains("Authentication failed"));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getRawPath();
+        String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+        boolean authenticated = cookie != null && cookie.contains(SESSION_COOKIE);
+
+        if ("GET".equals(method) && path.equals("/prelogin")) {
+            respond(exchange, "prelogin.html");
+        } else if ("POST".equals(method) && path.equals("/prelogin")) {
+            String body = readBody(exchange);
+            if (body.contains("j_username=niagara") && body.contains("token=stub-prelogin-token")) {
+                respond(exchange, "login.html");
+            } else {
+                redirect(exchange, "/prelogin?auth=fail");
+            }
+        } else if ("POST".equals(method) && path.equals("/j_security_check")) {
+            String body = readBody(exchange);
+            if (body.contains("j_password=secret")) {
+                loginCount.incrementAndGet();
+                exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "; Path=/");
+                redirect(exchange, "/");
+            } else {
+                redirect(exchange, "/prelogin?auth=fail");
+            }
+        } else if (path.equals(DATA_PATH) || path.equals(IFRAME_PATH)) {
+            if (!authenticated) {
+                redirect(exchange, "/prelogin");
+            } else {
+                if (path.equals(DATA_PATH)) {
+                    dataPageCount.incrementAndGet();
+                    awaitRelease();
+                }
+                respond(exchange, path.equals(DATA_PATH) ? "affichage.html" : "servlet-view.html");
+            }
+        } else if (path.equals("/")) {
+            byte[] home = "<html><body>Home</body></html>".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, home.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(home);
+            }
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        }
+    }
+
+    private void awaitRelease() {
+        CountDownLatch latch = holdDataPage;
+        if (latch != null) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void respond(HttpExchange exchange, String page) throws IOException {
+        byte[] body;
+        try (InputStream in = getClass().getResourceAsStream("/niagara/" + page)) {
+            body = in.readAllBytes();
+        }
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}